@@ -0,0 +1,92 @@
+package com.finalworks.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps a pooled DataSource and times, per calling endpoint and pool, how long getConnection()
+ * waits for the pool (finalworks.db.connection.acquire) and how long the connection is
+ * held until it goes back (finalworks.db.connection.hold). The endpoint is the controller
+ * method set by {@link EndpointContext} for the current request, or "unattributed".
+ */
+public class ConnectionHoldTrackingDataSource extends DelegatingDataSource {
+
+    static final String ACQUIRE_METRIC = "finalworks.db.connection.acquire";
+    static final String HOLD_METRIC = "finalworks.db.connection.hold";
+
+    private final String pool;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Timer> acquireTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> holdTimers = new ConcurrentHashMap<>();
+
+    public ConnectionHoldTrackingDataSource(DataSource target, String pool, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(target);
+        this.pool = pool;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String endpoint = EndpointContext.current();
+        long started = System.nanoTime();
+        Connection connection = super.getConnection();
+        long acquired = System.nanoTime();
+        record(acquireTimers, ACQUIRE_METRIC, endpoint, acquired - started);
+        return track(connection, endpoint, acquired);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        String endpoint = EndpointContext.current();
+        long started = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        long acquired = System.nanoTime();
+        record(acquireTimers, ACQUIRE_METRIC, endpoint, acquired - started);
+        return track(connection, endpoint, acquired);
+    }
+
+    private Connection track(Connection connection, String endpoint, long acquired) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean closed;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("close".equals(method.getName()) && !closed) {
+                    closed = true;
+                    record(holdTimers, HOLD_METRIC, endpoint, System.nanoTime() - acquired);
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private void record(Map<String, Timer> timers, String name, String endpoint, long nanos) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        timers.computeIfAbsent(endpoint, key -> Timer.builder(name)
+                        .tag("endpoint", key)
+                        .tag("pool", pool)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,80 @@
+package com.finalworks.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports OUT_OF_SERVICE (HTTP 503) while a connection pool is saturated: every connection
+ * is in use and at least max-pending threads are queued for one. Part of the readiness group,
+ * so a load balancer polling /actuator/health/readiness backs off instead of piling on more
+ * requests that would only time out waiting for a connection. With a read replica configured
+ * both pools are reported, keyed by pool name.
+ */
+@Component("connectionPool")
+public class ConnectionPoolHealthIndicator implements HealthIndicator {
+
+    private final List<DataSource> dataSources;
+    private final int maxPending;
+
+    public ConnectionPoolHealthIndicator(List<DataSource> dataSources,
+                                         @Value("${finalworks.datasource.health.max-pending:5}") int maxPending) {
+        this.dataSources = dataSources;
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        for (DataSource dataSource : dataSources) {
+            try {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                pools.putIfAbsent(hikari.getPoolName(), hikari);
+            } catch (SQLException e) {
+                // Not backed by a Hikari pool
+            }
+        }
+        if (pools.isEmpty()) {
+            return Health.unknown().withDetail("reason", "not a Hikari pool").build();
+        }
+
+        Health.Builder health = Health.unknown();
+        boolean started = false;
+        boolean saturated = false;
+        for (HikariDataSource hikari : pools.values()) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool == null) {
+                // Pool starts lazily with the first connection
+                health.withDetail(hikari.getPoolName(), Map.of("reason", "pool not started"));
+                continue;
+            }
+            started = true;
+            int max = hikari.getMaximumPoolSize();
+            int active = pool.getActiveConnections();
+            int pending = pool.getThreadsAwaitingConnection();
+            saturated |= active >= max && pending >= maxPending;
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("active", active);
+            details.put("idle", pool.getIdleConnections());
+            details.put("total", pool.getTotalConnections());
+            details.put("max", max);
+            details.put("pending", pending);
+            details.put("maxPending", maxPending);
+            details.put("utilisation", (double) active / max);
+            health.withDetail(hikari.getPoolName(), details);
+        }
+        if (saturated) {
+            return health.outOfService().build();
+        }
+        return started ? health.up().build() : health.build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.finalworks.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Connection pool instrumentation. Pool sizing itself lives in spring.datasource.hikari.*
+ * (see the application*.properties files); Hikari's own gauges and timers (hikaricp.*)
+ * are bound by Spring Boot, this adds the per-endpoint acquire and hold timers for each pool.
+ */
+@Configuration
+public class DataSourcePoolConfig implements WebMvcConfigurer {
+
+    // Static so wrapping the auto-configured DataSource does not force this configuration to initialise early
+    @Bean
+    public static BeanPostProcessor connectionHoldTrackingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the pools themselves; a routing DataSource in front of them (ReadReplicaConfig) is not timed twice
+                if (bean instanceof HikariDataSource hikari) {
+                    String pool = hikari.getPoolName() != null ? hikari.getPoolName() : beanName;
+                    return new ConnectionHoldTrackingDataSource(hikari, pool, meterRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new EndpointContext.Interceptor());
+    }
+}
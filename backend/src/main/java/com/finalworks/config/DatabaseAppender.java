@@ -1,15 +1,58 @@
 package com.finalworks.config;
 
+import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.classic.spi.ThrowableProxy;
-import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
 import com.finalworks.model.FatalLog;
 import com.finalworks.repository.FatalLogRepository;
 import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class DatabaseAppender extends AppenderBase<ILoggingEvent> {
+/**
+ * Persists ERROR events to fatal_logs.
+ *
+ * In async mode (the default) the logging thread only builds the row and offers it to a
+ * bounded queue; when the queue is full the event is dropped and counted, so request
+ * threads never wait on the database. A writer thread flushes the queue in JDBC batches
+ * (by size or after flushIntervalMillis) and folds identical errors seen within
+ * dedupWindowMillis into one row with an occurrence counter.
+ *
+ * append() is not serialised by a monitor (UnsynchronizedAppenderBase): the queue and the
+ * repository are thread-safe, and a synchronized append would pin virtual threads for the
+ * length of a synchronous insert.
+ */
+public class DatabaseAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private static final String WRITER_THREAD_NAME = "fatal-log-writer";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO fatal_logs (message, stack_trace, logger_name, thread_name, timestamp, class_name, method_name, "
+                    + "level, fingerprint, occurrence_count, last_occurred_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE fatal_logs SET occurrence_count = occurrence_count + ?, last_occurred_at = ? "
+                    + "WHERE id = (SELECT MAX(id) FROM fatal_logs WHERE fingerprint = ?)";
 
     private static ApplicationContext applicationContext;
 
@@ -17,59 +60,249 @@ public class DatabaseAppender extends AppenderBase<ILoggingEvent> {
         applicationContext = context;
     }
 
+    // Configurable from logback-spring.xml
+    private boolean async = true;
+    private int queueSize = 1024;
+    private int batchSize = 100;
+    private long flushIntervalMillis = 500;
+    private long dedupWindowMillis = 60_000;
+
+    private BlockingQueue<FatalLog> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    // Writer thread only: fingerprint -> when its row was inserted
+    private final Map<String, Long> recentFingerprints = new HashMap<>();
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @Override
+    public void start() {
+        if (async) {
+            queue = new ArrayBlockingQueue<>(queueSize);
+            running = true;
+            writer = new Thread(this::writeLoop, WRITER_THREAD_NAME);
+            writer.setDaemon(true);
+            writer.start();
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (writer != null) {
+            running = false;
+            writer.interrupt();
+            try {
+                writer.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     @Override
     protected void append(ILoggingEvent event) {
         // Log only events at level ERROR or higher (Logback does not have FATAL; use ERROR)
-        if (event.getLevel().isGreaterOrEqual(ch.qos.logback.classic.Level.ERROR)) {
+        if (!event.getLevel().isGreaterOrEqual(Level.ERROR)) {
+            return;
+        }
+        // Our own failures go to the console only, otherwise a broken database would feed itself
+        if (WRITER_THREAD_NAME.equals(event.getThreadName())) {
+            return;
+        }
+        if (async) {
+            if (!queue.offer(toFatalLog(event))) {
+                dropped.incrementAndGet();
+            }
+            return;
+        }
+        try {
+            if (applicationContext != null) {
+                applicationContext.getBean(FatalLogRepository.class).save(toFatalLog(event));
+                written.incrementAndGet();
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            // Záložní řešení na konzoli, pokud se nepodaří zapsat do databáze
+            System.err.println("Failed to write fatal log to database: " + e.getMessage());
+            System.err.println("Original fatal log: " + event.getFormattedMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("async", async);
+        result.put("queued", queue != null ? queue.size() : 0);
+        result.put("queueCapacity", async ? queueSize : 0);
+        result.put("written", written.get());
+        result.put("deduplicated", deduplicated.get());
+        result.put("dropped", dropped.get());
+        result.put("failed", failed.get());
+        return result;
+    }
+
+    private void writeLoop() {
+        List<FatalLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
             try {
-                if (applicationContext != null) {
-                    FatalLogRepository fatalLogRepository = applicationContext.getBean(FatalLogRepository.class);
-                    if (fatalLogRepository != null) {
-                        FatalLog fatalLog = new FatalLog();
-                        fatalLog.setMessage(event.getFormattedMessage());
-                        fatalLog.setLoggerName(event.getLoggerName());
-                        fatalLog.setThreadName(event.getThreadName());
-                        fatalLog.setLevel(event.getLevel().toString());
-                        fatalLog.setTimestamp(java.time.LocalDateTime.now());
-
-                        // Extrahovat stack trace, pokud existuje výjimka
-                        if (event.getThrowableProxy() != null) {
-                            ThrowableProxy throwableProxy = (ThrowableProxy) event.getThrowableProxy();
-                            StringBuilder stackTrace = new StringBuilder();
-                            stackTrace.append(throwableProxy.getClassName())
-                                    .append(": ")
-                                    .append(throwableProxy.getMessage())
-                                    .append("\n");
-                            
-                            if (throwableProxy.getStackTraceElementProxyArray() != null) {
-                                Arrays.stream(throwableProxy.getStackTraceElementProxyArray())
-                                        .limit(50) // Limit stack trace to 50 lines
-                                        .forEach(element -> {
-                                            stackTrace.append("\tat ")
-                                                    .append(element.getStackTraceElement())
-                                                    .append("\n");
-                                        });
-                            }
-                            fatalLog.setStackTrace(stackTrace.toString());
-                        }
-
-                        // Extrahovat název třídy a metody z dat volajícího
-                        if (event.getCallerData() != null && event.getCallerData().length > 0) {
-                            StackTraceElement caller = event.getCallerData()[0];
-                            fatalLog.setClassName(caller.getClassName());
-                            fatalLog.setMethodName(caller.getMethodName());
-                        }
-
-                        fatalLogRepository.save(fatalLog);
+                if (applicationContext == null) {
+                    // Spring is not up yet; keep queueing (and dropping once full) until it is
+                    Thread.sleep(flushIntervalMillis);
+                    continue;
+                }
+                FatalLog first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + flushIntervalMillis;
+                while (running && batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    FatalLog next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
                     }
+                    batch.add(next);
                 }
-            } catch (Exception e) {
-                // Záložní řešení na konzoli, pokud se nepodaří zapsat do databáze
-                System.err.println("Failed to write fatal log to database: " + e.getMessage());
-                System.err.println("Original fatal log: " + event.getFormattedMessage());
-                e.printStackTrace();
+            } catch (InterruptedException e) {
+                // stop() was called; flush whatever is left before exiting
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
             }
         }
     }
-}
 
+    private void flush(List<FatalLog> batch) {
+        long now = System.currentTimeMillis();
+        recentFingerprints.values().removeIf(insertedAt -> now - insertedAt > dedupWindowMillis);
+
+        // Fold identical errors inside the batch first
+        Map<String, FatalLog> byFingerprint = new LinkedHashMap<>();
+        for (FatalLog log : batch) {
+            FatalLog existing = byFingerprint.putIfAbsent(log.getFingerprint(), log);
+            if (existing != null) {
+                existing.setOccurrenceCount(existing.getOccurrenceCount() + 1);
+                existing.setLastOccurredAt(log.getTimestamp());
+            }
+        }
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        for (FatalLog log : byFingerprint.values()) {
+            LocalDateTime last = log.getLastOccurredAt() != null ? log.getLastOccurredAt() : log.getTimestamp();
+            if (recentFingerprints.containsKey(log.getFingerprint())) {
+                updates.add(new Object[]{log.getOccurrenceCount(), Timestamp.valueOf(last), log.getFingerprint()});
+            } else {
+                inserts.add(new Object[]{log.getMessage(), log.getStackTrace(), log.getLoggerName(), log.getThreadName(),
+                        Timestamp.valueOf(log.getTimestamp()), log.getClassName(), log.getMethodName(), log.getLevel(),
+                        log.getFingerprint(), log.getOccurrenceCount(), Timestamp.valueOf(last)});
+                recentFingerprints.put(log.getFingerprint(), now);
+            }
+        }
+
+        try {
+            JdbcTemplate jdbcTemplate = applicationContext.getBean(JdbcTemplate.class);
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            }
+            written.addAndGet(inserts.size());
+            deduplicated.addAndGet(batch.size() - inserts.size());
+        } catch (Exception e) {
+            failed.addAndGet(batch.size());
+            // Záložní řešení na konzoli, pokud se nepodaří zapsat do databáze
+            System.err.println("Failed to write " + batch.size() + " fatal logs to database: " + e.getMessage());
+            batch.forEach(log -> System.err.println("Original fatal log: " + log.getMessage()));
+            // Nothing was stored, so the next occurrence must insert again
+            byFingerprint.keySet().forEach(recentFingerprints::remove);
+        }
+    }
+
+    private FatalLog toFatalLog(ILoggingEvent event) {
+        FatalLog fatalLog = new FatalLog();
+        fatalLog.setMessage(truncate(event.getFormattedMessage(), 500));
+        fatalLog.setLoggerName(truncate(event.getLoggerName(), 200));
+        fatalLog.setThreadName(truncate(event.getThreadName(), 50));
+        fatalLog.setLevel(event.getLevel().toString());
+        fatalLog.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getTimeStamp()), ZoneId.systemDefault()));
+
+        // Extrahovat stack trace, pokud existuje výjimka
+        IThrowableProxy throwableProxy = event.getThrowableProxy();
+        if (throwableProxy != null) {
+            StringBuilder stackTrace = new StringBuilder();
+            stackTrace.append(throwableProxy.getClassName())
+                    .append(": ")
+                    .append(throwableProxy.getMessage())
+                    .append("\n");
+
+            StackTraceElementProxy[] elements = throwableProxy.getStackTraceElementProxyArray();
+            if (elements != null) {
+                Arrays.stream(elements)
+                        .limit(50) // Limit stack trace to 50 lines
+                        .forEach(element -> stackTrace.append("\tat ")
+                                .append(element.getStackTraceElement())
+                                .append("\n"));
+            }
+            fatalLog.setStackTrace(stackTrace.toString());
+        }
+
+        // Extrahovat název třídy a metody z dat volajícího (musí proběhnout na volajícím vlákně)
+        StackTraceElement[] callerData = event.getCallerData();
+        if (callerData != null && callerData.length > 0) {
+            fatalLog.setClassName(truncate(callerData[0].getClassName(), 100));
+            fatalLog.setMethodName(truncate(callerData[0].getMethodName(), 100));
+        }
+
+        fatalLog.setFingerprint(fingerprint(fatalLog));
+        return fatalLog;
+    }
+
+    private static String fingerprint(FatalLog log) {
+        String key = log.getLoggerName() + "\n" + (log.getStackTrace() != null ? log.getStackTrace() : log.getMessage());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public void setDedupWindowMillis(long dedupWindowMillis) {
+        this.dedupWindowMillis = dedupWindowMillis;
+    }
+}
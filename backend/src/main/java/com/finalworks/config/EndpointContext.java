@@ -0,0 +1,46 @@
+package com.finalworks.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Remembers which controller method the current thread is serving, as
+ * "FinalWorkController.getAllFinalWorks", so connection metrics can be attributed to it.
+ */
+public final class EndpointContext {
+
+    // Scheduled jobs, start-up work and anything that runs before a handler is chosen (filters)
+    static final String UNATTRIBUTED = "unattributed";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private EndpointContext() {
+    }
+
+    public static String current() {
+        String endpoint = CURRENT.get();
+        return endpoint != null ? endpoint : UNATTRIBUTED;
+    }
+
+    static String nameOf(HandlerMethod method) {
+        return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+    }
+
+    static class Interceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            if (handler instanceof HandlerMethod method) {
+                CURRENT.set(nameOf(method));
+            }
+            return true;
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+            CURRENT.remove();
+        }
+    }
+}
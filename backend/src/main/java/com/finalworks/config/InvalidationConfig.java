@@ -0,0 +1,41 @@
+package com.finalworks.config;
+
+import com.finalworks.event.InvalidationTransport;
+import com.finalworks.event.LocalInvalidationTransport;
+import com.finalworks.event.PostgresInvalidationTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+public class InvalidationConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationConfig.class);
+
+    /**
+     * "postgres" uses LISTEN/NOTIFY, "local" stays in-process; "auto" picks postgres
+     * whenever the datasource is PostgreSQL.
+     */
+    @Bean(destroyMethod = "stop")
+    public InvalidationTransport invalidationTransport(
+            JdbcTemplate jdbcTemplate,
+            @Value("${finalworks.cache.invalidation.transport:auto}") String transport,
+            @Value("${finalworks.cache.invalidation.channel:finalworks_invalidation}") String channel,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password) {
+        boolean postgres = switch (transport.toLowerCase()) {
+            case "postgres" -> true;
+            case "local" -> false;
+            case "auto" -> url.startsWith("jdbc:postgresql:");
+            default -> throw new IllegalArgumentException("Unknown cache invalidation transport: " + transport);
+        };
+        logger.info("Cache invalidation transport: {}", postgres ? "postgres" : "local");
+        return postgres
+                ? new PostgresInvalidationTransport(jdbcTemplate, channel, url, username, password)
+                : new LocalInvalidationTransport();
+    }
+}
@@ -0,0 +1,64 @@
+package com.finalworks.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Application metrics beyond what Spring Boot binds on its own (HTTP server requests,
+ * hikaricp.* pool gauges, JVM memory/GC/threads), all scraped from /actuator/prometheus:
+ * service-layer timers from the {@code @Timed} service classes (finalworks.service, tagged
+ * with class, method and exception name only) and SQL statements per request, checked against
+ * a per-endpoint budget (see StatementCounter).
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<StatementCounter> statementCounter;
+
+    public MetricsConfig(MeterRegistry meterRegistry, ObjectProvider<StatementCounter> statementCounter) {
+        this.meterRegistry = meterRegistry;
+        this.statementCounter = statementCounter;
+    }
+
+    // Infrastructure role, so the auto-proxy creator Spring Boot registers for @Transactional applies it too.
+    // Not registered when disabled, which leaves the services without any timing overhead.
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(name = "finalworks.metrics.service-timers.enabled", matchIfMissing = true)
+    public static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        // Advisors are created before most beans; resolving the registry on first use keeps it fully post-processed
+        return new DefaultPointcutAdvisor(ServiceTimingInterceptor.POINTCUT, new ServiceTimingInterceptor(meterRegistry::getObject));
+    }
+
+    @Bean
+    public StatementCounter statementCounter(Environment environment,
+                                             @Value("${finalworks.sql.budget.default:50}") int defaultBudget,
+                                             @Value("${finalworks.sql.budget.repeated:10}") int repeatedBudget,
+                                             @Value("${finalworks.sql.budget.enforce:false}") boolean enforce) {
+        return new StatementCounter(environment, defaultBudget, repeatedBudget, enforce);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementCounter.Interceptor(meterRegistry, statementCounter.getObject()));
+    }
+}
@@ -0,0 +1,82 @@
+package com.finalworks.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read/write splitting, enabled by setting finalworks.datasource.replica.jdbc-url. The primary
+ * pool keeps its spring.datasource.* settings, the replica pool is configured under
+ * finalworks.datasource.replica.* (any Hikari property), and the application DataSource
+ * becomes a lazy proxy over {@link ReadWriteRoutingDataSource}. Without a replica URL the
+ * auto-configured single pool is used as before.
+ */
+@Configuration
+@ConditionalOnProperty("finalworks.datasource.replica.jdbc-url")
+public class ReadReplicaConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    // Seconds since the last replayed transaction, or 0 when the standby has replayed everything it received
+    private static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("finalworks.datasource.replica")
+    public HikariDataSource replicaDataSource(@Value("${spring.datasource.hikari.pool-name:finalworks}") String primaryPoolName) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName(primaryPoolName + "-replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${finalworks.datasource.routing.stickiness:5s}") Duration stickiness,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReadWriteRoutingDataSource(primary, replica, stickiness, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource,
+                                 @Value("${finalworks.datasource.replica.jdbc-url}") String replicaUrl,
+                                 @Value("${finalworks.datasource.routing.stickiness:5s}") Duration stickiness) {
+        logger.info("Routing read-only transactions to replica {} (read-your-writes window {})", replicaUrl, stickiness);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               ReadWriteRoutingDataSource routingDataSource,
+                                               @Value("${finalworks.datasource.replica.jdbc-url}") String replicaUrl,
+                                               @Value("${finalworks.datasource.routing.lag-query:}") String lagQuery,
+                                               @Value("${finalworks.datasource.routing.max-lag:2s}") Duration maxLag) {
+        if (lagQuery.isBlank() && replicaUrl.startsWith("jdbc:postgresql:")) {
+            lagQuery = POSTGRES_LAG_QUERY;
+        }
+        return new ReplicaLagMonitor(replica, routingDataSource, lagQuery, maxLag);
+    }
+}
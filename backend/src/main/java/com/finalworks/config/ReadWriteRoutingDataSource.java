@@ -0,0 +1,165 @@
+package com.finalworks.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions (@Transactional(readOnly = true), including Spring Data's
+ * own finders) to the replica and everything else to the primary. Must sit behind a
+ * LazyConnectionDataSourceProxy so the connection is fetched after the transaction has
+ * been marked read-only.
+ *
+ * Reads still go to the primary while the replica is marked unavailable (lagging or
+ * unreachable, see {@link ReplicaLagMonitor}) and, for the stickiness window after a
+ * user's own committed write, for that user, so they read their writes. Stickiness is
+ * tracked per instance.
+ *
+ * Reads whose result outlives the request (cache fills, search index updates) must not see a
+ * lagging replica either, and often run without a user; they go through {@link #onPrimary}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String ROUTE_METRIC = "finalworks.db.route";
+
+    enum Route { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> primaryRequested = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicBoolean replicaAvailable = new AtomicBoolean(true);
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<Route, Counter> routeCounters = new ConcurrentHashMap<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration stickiness,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.meterRegistry = meterRegistry;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(stickiness)
+                .build();
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !replicaAvailable.get()
+                || primaryRequested.get() != null) {
+            return Route.PRIMARY;
+        }
+        String user = currentUser();
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == Route.PRIMARY) {
+            recordWriteOnCommit();
+            return connect(Route.PRIMARY, primary);
+        }
+        try {
+            return connect(Route.REPLICA, replica);
+        } catch (SQLException e) {
+            markReplica(false, "connection failed: " + e.getMessage());
+            return connect(Route.PRIMARY, primary);
+        }
+    }
+
+    /**
+     * Runs the reads on the primary. Applies to transactions (and connections) opened inside
+     * the callback, not to one the thread already holds. Does not count as a write.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        if (primaryRequested.get() != null) {
+            return reads.get();
+        }
+        primaryRequested.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            primaryRequested.remove();
+        }
+    }
+
+    void markReplica(boolean available, String reason) {
+        if (replicaAvailable.compareAndSet(!available, available)) {
+            if (available) {
+                logger.info("Read replica available again ({}), routing read-only transactions to it", reason);
+            } else {
+                logger.warn("Read replica unavailable ({}), routing all transactions to the primary", reason);
+            }
+        }
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable.get();
+    }
+
+    private Connection connect(Route route, DataSource target) throws SQLException {
+        Connection connection = target.getConnection();
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            routeCounters.computeIfAbsent(route, key -> Counter.builder(ROUTE_METRIC)
+                            .tag("target", key.name().toLowerCase())
+                            .register(registry))
+                    .increment();
+        }
+        return connection;
+    }
+
+    // A read-write transaction is taken as a write; its user reads from the primary once it commits
+    private void recordWriteOnCommit() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String user = currentUser();
+        if (user == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,64 @@
+package com.finalworks.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Polls the replica and takes it out of read routing while its replay lag exceeds max-lag
+ * or it cannot be reached. The lag query returns seconds behind the primary (NULL counts as
+ * caught up); without one only connectivity is checked.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource replica;
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    public ReplicaLagMonitor(DataSource replica, ReadWriteRoutingDataSource routingDataSource,
+                             String lagQuery, Duration maxLag) {
+        this.replica = replica;
+        this.routingDataSource = routingDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${finalworks.datasource.routing.lag-check-interval:5000}")
+    public void check() {
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery.isBlank()) {
+                boolean valid = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+                routingDataSource.markReplica(valid, valid ? "connection valid" : "connection invalid");
+                return;
+            }
+            Duration lag = measureLag(connection);
+            logger.debug("Read replica lag: {}", lag);
+            routingDataSource.markReplica(lag.compareTo(maxLag) <= 0, "lag " + lag.toMillis() + " ms, max " + maxLag.toMillis() + " ms");
+        } catch (SQLException | RuntimeException e) {
+            routingDataSource.markReplica(false, "lag check failed: " + e.getMessage());
+        }
+    }
+
+    private Duration measureLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return Duration.ZERO;
+            }
+            double seconds = resultSet.getDouble(1);
+            return resultSet.wasNull() ? Duration.ZERO : Duration.ofMillis(Math.round(seconds * 1000));
+        }
+    }
+}
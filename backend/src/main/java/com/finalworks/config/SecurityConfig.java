@@ -60,11 +60,17 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**").permitAll()
 
                 .requestMatchers(HttpMethod.GET, "/api/final-works/**").permitAll()
+                .requestMatchers("/api/files/uploads/**").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/files/**").permitAll()
+                .requestMatchers(HttpMethod.HEAD, "/api/files/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/tags/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/actuator/health/**").permitAll()
 
                 .requestMatchers("/api/students/**").hasRole("ADMIN")
                 .requestMatchers("/api/fatal-logs/**").hasRole("ADMIN")
+                .requestMatchers("/api/search/**").hasRole("ADMIN")
+                .requestMatchers("/api/cache/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                 .requestMatchers(HttpMethod.DELETE, "/api/final-works/**").hasRole("ADMIN")
 
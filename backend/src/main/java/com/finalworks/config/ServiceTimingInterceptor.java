@@ -0,0 +1,87 @@
+package com.finalworks.config;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times every public method declared by a class annotated with Micrometer's {@code @Timed},
+ * using the annotation's name and histogram flag. Tags are limited to class, method and
+ * exception simple name, so the number of series is fixed by the code. A plain Spring AOP
+ * interceptor rather than Micrometer's TimedAspect: no AspectJ join point is built per call
+ * and the success timer is looked up once per method.
+ */
+public class ServiceTimingInterceptor implements MethodInterceptor {
+
+    /** Public methods declared by (not inherited into) a {@code @Timed} class. */
+    public static final Pointcut POINTCUT = new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            Class<?> userClass = ClassUtils.getUserClass(targetClass);
+            return Modifier.isPublic(method.getModifiers())
+                    && method.getDeclaringClass() == userClass
+                    && userClass.isAnnotationPresent(Timed.class);
+        }
+    };
+
+    private static final String NO_EXCEPTION = "none";
+
+    private final Supplier<MeterRegistry> meterRegistrySupplier;
+    private final ConcurrentMap<Method, Timer> successTimers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    public ServiceTimingInterceptor(Supplier<MeterRegistry> meterRegistry) {
+        this.meterRegistrySupplier = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry meterRegistry = registry();
+        Method method = invocation.getMethod();
+        long start = meterRegistry.config().clock().monotonicTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            timer(meterRegistry, method, e.getClass().getSimpleName())
+                    .record(meterRegistry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        successTimers.computeIfAbsent(method, m -> timer(meterRegistry, m, NO_EXCEPTION))
+                .record(meterRegistry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private MeterRegistry registry() {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            registry = meterRegistrySupplier.get();
+            meterRegistry = registry;
+        }
+        return registry;
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, Method method, String exception) {
+        Class<?> type = method.getDeclaringClass();
+        Timed timed = type.getAnnotation(Timed.class);
+        return Timer.builder(timed.value())
+                .description(timed.description().isEmpty() ? null : timed.description())
+                .tag("class", type.getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .publishPercentileHistogram(timed.histogram())
+                .register(meterRegistry);
+    }
+}
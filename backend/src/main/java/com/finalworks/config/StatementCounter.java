@@ -0,0 +1,173 @@
+package com.finalworks.config;
+
+import com.finalworks.exception.QueryBudgetExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the SQL statements Hibernate prepares while a request is being handled and records
+ * them per endpoint (finalworks.http.statements), which makes N+1 patterns visible as a
+ * statement count that grows with the page size. Statements outside requests (scheduled
+ * jobs, start-up) are not counted.
+ *
+ * <p>Each request also has a budget: at most finalworks.sql.budget.default statements (or
+ * finalworks.sql.budget.endpoint.&lt;Controller.method&gt;) and at most
+ * finalworks.sql.budget.repeated executions of one statement shape, the usual signature of a
+ * lazy association loaded once per row. A broken budget is logged and counted in
+ * finalworks.http.query.budget.exceeded; with finalworks.sql.budget.enforce=true the
+ * offending statement throws instead, so integration tests fail on the regression.
+ */
+public final class StatementCounter implements StatementInspector {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementCounter.class);
+
+    static final String METRIC = "finalworks.http.statements";
+    static final String EXCEEDED_METRIC = "finalworks.http.query.budget.exceeded";
+
+    // "in (?,?,?)" with a different number of parameters is still the same statement
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private final PropertyResolver properties;
+    private final int defaultBudget;
+    private final int repeatedBudget;
+    private final boolean enforce;
+    private final ConcurrentMap<String, Integer> budgets = new ConcurrentHashMap<>();
+
+    public StatementCounter(PropertyResolver properties, int defaultBudget, int repeatedBudget, boolean enforce) {
+        this.properties = properties;
+        this.defaultBudget = defaultBudget;
+        this.repeatedBudget = repeatedBudget;
+        this.enforce = enforce;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null && statements.add(shapeOf(sql)) && enforce && !statements.failed) {
+            statements.failed = true;
+            throw new QueryBudgetExceededException("Query budget exceeded: " + statements.describe());
+        }
+        return sql;
+    }
+
+    static String shapeOf(String sql) {
+        return sql.indexOf(',') >= 0 ? PARAMETER_LIST.matcher(sql).replaceAll("?") : sql;
+    }
+
+    int budgetOf(String endpoint) {
+        return budgets.computeIfAbsent(endpoint,
+                e -> properties.getProperty("finalworks.sql.budget.endpoint." + e, Integer.class, defaultBudget));
+    }
+
+    private static final class RequestStatements {
+        private final String endpoint;
+        private final int budget;
+        private final int repeatedBudget;
+        private final Map<String, Integer> shapes = new HashMap<>();
+        private int count;
+        private String mostRepeated;
+        private int repeats;
+        private boolean failed;
+
+        RequestStatements(String endpoint, int budget, int repeatedBudget) {
+            this.endpoint = endpoint;
+            this.budget = budget;
+            this.repeatedBudget = repeatedBudget;
+        }
+
+        /** Returns true when this statement is the one that breaks a budget. */
+        boolean add(String shape) {
+            count++;
+            int shapeCount = shapes.merge(shape, 1, Integer::sum);
+            if (shapeCount > repeats) {
+                repeats = shapeCount;
+                mostRepeated = shape;
+            }
+            return count == budget + 1 || shapeCount == repeatedBudget + 1;
+        }
+
+        boolean overTotal() {
+            return count > budget;
+        }
+
+        boolean overRepeated() {
+            return repeats > repeatedBudget;
+        }
+
+        String describe() {
+            return "endpoint=" + endpoint + " statements=" + count + " budget=" + budget
+                    + " repeats=" + repeats + " repeatedBudget=" + repeatedBudget
+                    + " statement=\"" + mostRepeated + "\"";
+        }
+    }
+
+    static class Interceptor implements HandlerInterceptor {
+
+        private final MeterRegistry meterRegistry;
+        private final StatementCounter statementCounter;
+
+        Interceptor(MeterRegistry meterRegistry, StatementCounter statementCounter) {
+            this.meterRegistry = meterRegistry;
+            this.statementCounter = statementCounter;
+        }
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            if (handler instanceof HandlerMethod method) {
+                String endpoint = EndpointContext.nameOf(method);
+                CURRENT.set(new RequestStatements(endpoint, statementCounter.budgetOf(endpoint), statementCounter.repeatedBudget));
+            }
+            return true;
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+            RequestStatements statements = CURRENT.get();
+            CURRENT.remove();
+            if (statements == null) {
+                return;
+            }
+            DistributionSummary.builder(METRIC)
+                    .description("SQL statements prepared per request")
+                    .tag("endpoint", statements.endpoint)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(1.0)
+                    .maximumExpectedValue(1000.0)
+                    .register(meterRegistry)
+                    .record(statements.count);
+            if (statements.overTotal()) {
+                exceeded(statements, "total", request);
+            }
+            if (statements.overRepeated()) {
+                exceeded(statements, "repeated", request);
+            }
+        }
+
+        private void exceeded(RequestStatements statements, String reason, HttpServletRequest request) {
+            logger.warn("Query budget exceeded: reason={} {} uri={}", reason, statements.describe(), request.getRequestURI());
+            Counter.builder(EXCEEDED_METRIC)
+                    .description("Requests that broke their SQL statement budget")
+                    .tag("endpoint", statements.endpoint)
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
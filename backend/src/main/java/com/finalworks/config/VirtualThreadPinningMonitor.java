@@ -0,0 +1,121 @@
+package com.finalworks.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Streams JFR jdk.VirtualThreadPinned events while virtual threads are enabled
+ * (spring.threads.virtual.enabled on a Java 21+ runtime). A virtual thread that blocks
+ * inside a monitor or native frame holds on to its carrier; every site that does so for
+ * longer than the threshold is logged once with its stack, repeats are only counted.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.finalworks.";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final Map<String, AtomicLong> pinnedBySite = new ConcurrentHashMap<>();
+    private final AtomicLong pinnedTotal = new AtomicLong();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${finalworks.diagnostics.pinning.threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            logger.info("Virtual threads enabled; reporting carrier pinning longer than {}", threshold);
+        } catch (RuntimeException e) {
+            // JFR may be unavailable (e.g. disabled in the image); the application runs fine without it
+            logger.warn("Could not start virtual thread pinning monitor", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+        if (pinnedTotal.get() > 0) {
+            logger.info("Virtual thread pinning summary: {} events, by site {}", pinnedTotal.get(), stats());
+        }
+    }
+
+    public Map<String, Long> stats() {
+        return pinnedBySite.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get()));
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTotal.incrementAndGet();
+        List<RecordedFrame> frames = event.getStackTrace() != null
+                ? event.getStackTrace().getFrames()
+                : List.of();
+        String site = siteOf(frames);
+        long seen = pinnedBySite.computeIfAbsent(site, key -> new AtomicLong()).incrementAndGet();
+        if (seen == 1) {
+            logger.warn("Virtual thread pinned for {} ms at {}{}",
+                    event.getDuration().toMillis(), site, format(event.getStackTrace()));
+        } else {
+            logger.debug("Virtual thread pinned for {} ms at {} ({} times)", event.getDuration().toMillis(), site, seen);
+        }
+    }
+
+    // Attribute the event to our own innermost frame when there is one, else to the top frame
+    private static String siteOf(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return describe(frame);
+            }
+        }
+        return frames.isEmpty() ? "unknown" : describe(frames.get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder result = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < Math.min(frames.size(), LOGGED_FRAMES); i++) {
+            result.append(System.lineSeparator()).append("\tat ").append(describe(frames.get(i)));
+        }
+        if (frames.size() > LOGGED_FRAMES || stackTrace.isTruncated()) {
+            result.append(System.lineSeparator()).append("\t...");
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.finalworks.controller;
+
+import com.finalworks.service.CacheInvalidationBus;
+import com.finalworks.service.FinalWorkDetailCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = {"http://localhost:3000", "https://localhost:3000"})
+public class CacheController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheController.class);
+
+    private final FinalWorkDetailCache finalWorkDetailCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public CacheController(FinalWorkDetailCache finalWorkDetailCache, CacheInvalidationBus cacheInvalidationBus) {
+        this.finalWorkDetailCache = finalWorkDetailCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(finalWorkDetailCache.stats());
+    }
+
+    @GetMapping("/invalidation")
+    public ResponseEntity<Map<String, Object>> getInvalidationStats() {
+        return ResponseEntity.ok(cacheInvalidationBus.stats());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        logger.info("Admin requested final work detail cache clear");
+        finalWorkDetailCache.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+}
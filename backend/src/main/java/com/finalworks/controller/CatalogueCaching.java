@@ -0,0 +1,40 @@
+package com.finalworks.controller;
+
+import com.finalworks.service.CatalogueVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional GET for the catalogue endpoints. Called before the handler loads anything, so a
+ * client or CDN revalidating an unchanged catalogue costs one in-memory ETag comparison.
+ */
+@Component
+class CatalogueCaching {
+
+    // Public so a CDN may keep a copy, but always revalidated with If-None-Match
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePublic().getHeaderValue();
+
+    private final CatalogueVersionService catalogueVersionService;
+
+    CatalogueCaching(CatalogueVersionService catalogueVersionService) {
+        this.catalogueVersionService = catalogueVersionService;
+    }
+
+    /**
+     * Sets the caching headers and returns true when the client's copy is current, in which
+     * case the response is already a 304 and the handler should return null.
+     */
+    boolean notModified(HttpServletRequest request, HttpServletResponse response) {
+        // Set here rather than on the ResponseEntity so the 304 carries it too
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return new ServletWebRequest(request, response).checkNotModified(catalogueVersionService.getETag());
+    }
+
+    void markChanged() {
+        catalogueVersionService.markChanged();
+    }
+}
@@ -1,13 +1,18 @@
 package com.finalworks.controller;
 
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.finalworks.config.DatabaseAppender;
 import com.finalworks.model.FatalLog;
 import com.finalworks.repository.FatalLogRepository;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/fatal-logs")
@@ -38,6 +43,16 @@ public class FatalLogController {
         return ResponseEntity.ok(logs);
     }
 
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getAppenderStats() {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger root = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        if (root.getAppender("DATABASE") instanceof DatabaseAppender appender) {
+            return ResponseEntity.ok(appender.stats());
+        }
+        return ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteFatalLog(@PathVariable Long id) {
         if (fatalLogRepository.existsById(id)) {
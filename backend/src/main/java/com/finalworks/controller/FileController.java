@@ -0,0 +1,184 @@
+package com.finalworks.controller;
+
+import com.finalworks.dto.StoredFileDTO;
+import com.finalworks.dto.UploadRequestDTO;
+import com.finalworks.dto.UploadSessionDTO;
+import com.finalworks.exception.BadRequestException;
+import com.finalworks.model.StoredFile;
+import com.finalworks.service.FileStorageService;
+import com.finalworks.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.apache.catalina.connector.ClientAbortException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@RestController
+@RequestMapping("/api/files")
+@CrossOrigin(origins = {"http://localhost:3000", "https://localhost:3000"})
+public class FileController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileController.class);
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+    // Anything else is served as an attachment so uploaded HTML or SVG never renders on our origin
+    private static final Set<String> INLINE_TYPES = Set.of("application/pdf", "image/png", "image/jpeg", "image/gif", "text/plain");
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    // Tomcat's sendfile (NIO connector without TLS): the connector streams the file from the page cache
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final FileStorageService fileStorageService;
+    private final UploadSessionService uploadSessionService;
+
+    public FileController(FileStorageService fileStorageService, UploadSessionService uploadSessionService) {
+        this.fileStorageService = fileStorageService;
+        this.uploadSessionService = uploadSessionService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StoredFileDTO> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        logger.info("Uploading file {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        // The container has already spooled the part to disk; transferTo moves it rather than copying through the heap
+        Path target = fileStorageService.newTempFile();
+        file.transferTo(target.toFile());
+        return ResponseEntity.status(201).body(fileStorageService.store(target, file.getOriginalFilename(), file.getContentType()));
+    }
+
+    @PostMapping("/uploads")
+    public ResponseEntity<UploadSessionDTO> startUpload(@Valid @RequestBody UploadRequestDTO request) {
+        return ResponseEntity.status(201).body(uploadSessionService.startUpload(request));
+    }
+
+    @GetMapping("/uploads/{id}")
+    public ResponseEntity<UploadSessionDTO> getUpload(@PathVariable String id) {
+        return ResponseEntity.ok(uploadSessionService.getUpload(id));
+    }
+
+    /** One chunk as the raw request body, positioned by "Content-Range: bytes first-last/total". */
+    @PutMapping(value = "/uploads/{id}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionDTO> uploadChunk(@PathVariable String id,
+                                                        @RequestHeader(HttpHeaders.CONTENT_RANGE) String contentRange,
+                                                        HttpServletRequest request) throws IOException {
+        Matcher range = CONTENT_RANGE.matcher(contentRange.trim());
+        if (!range.matches()) {
+            throw new BadRequestException("Content-Range must look like 'bytes first-last/total'");
+        }
+        long first = Long.parseLong(range.group(1));
+        long length = Long.parseLong(range.group(2)) - first + 1;
+        if (request.getContentLengthLong() != length) {
+            throw new BadRequestException("Content-Length does not match the Content-Range");
+        }
+        return ResponseEntity.ok(uploadSessionService.appendChunk(id, first, length, request.getInputStream()));
+    }
+
+    @DeleteMapping("/uploads/{id}")
+    public ResponseEntity<Void> cancelUpload(@PathVariable String id) throws IOException {
+        uploadSessionService.cancelUpload(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{sha256:[0-9a-f]{64}}")
+    public void download(@PathVariable String sha256, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        StoredFile file = fileStorageService.getFile(sha256);
+        Path path = fileStorageService.locate(sha256);
+        long length = Files.size(path);
+        String etag = "\"" + sha256 + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Sets the ETag and answers If-None-Match with 304
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Multiple ranges are answered with the whole file, which RFC 9110 allows
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+                if (start >= length || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        boolean inline = INLINE_TYPES.contains(file.getContentType());
+        response.setContentType(file.getContentType());
+        response.setContentLengthLong(count);
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        ContentDisposition.Builder disposition = inline ? ContentDisposition.inline() : ContentDisposition.attachment();
+        if (StandardCharsets.US_ASCII.newEncoder().canEncode(file.getFileName())) {
+            disposition.filename(file.getFileName());
+        } else {
+            disposition.filename(file.getFileName(), StandardCharsets.UTF_8);
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.build().toString());
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long transferred = channel.transferTo(position, end + 1 - position, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        } catch (ClientAbortException e) {
+            // Routine for media players and download managers that probe a range and hang up
+            logger.debug("Client aborted download of {}: {}", sha256, e.getMessage());
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.finalworks.controller;
 
 import com.finalworks.dto.CommentDTO;
+import com.finalworks.dto.CursorPage;
+import com.finalworks.dto.FacetedCursorPage;
 import com.finalworks.dto.FinalWorkDTO;
 import com.finalworks.service.FinalWorkService;
+import com.finalworks.service.TagIndexService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,30 +28,58 @@ public class FinalWorkController {
     @Autowired
     private FinalWorkService finalWorkService;
 
+    @Autowired
+    private CatalogueCaching catalogueCaching;
+
     @GetMapping
-    public ResponseEntity<List<FinalWorkDTO>> getAllFinalWorks() {
-        List<FinalWorkDTO> finalWorks = finalWorkService.getAllFinalWorks();
+    public ResponseEntity<CursorPage<FinalWorkDTO>> getAllFinalWorks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            HttpServletRequest request, HttpServletResponse response) {
+        if (catalogueCaching.notModified(request, response)) {
+            return null;
+        }
+        CursorPage<FinalWorkDTO> finalWorks = finalWorkService.getAllFinalWorks(cursor, limit);
         return ResponseEntity.ok(finalWorks);
     }
 
     @GetMapping("/newest")
-    public ResponseEntity<List<FinalWorkDTO>> getNewest() {
-        return ResponseEntity.ok(finalWorkService.getNewest());
+    public ResponseEntity<CursorPage<FinalWorkDTO>> getNewest(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            HttpServletRequest request, HttpServletResponse response) {
+        if (catalogueCaching.notModified(request, response)) {
+            return null;
+        }
+        return ResponseEntity.ok(finalWorkService.getNewest(cursor, limit));
     }
 
     @GetMapping("/top-rated")
-    public ResponseEntity<List<FinalWorkDTO>> getTopRated() {
-        return ResponseEntity.ok(finalWorkService.getTopRated());
+    public ResponseEntity<CursorPage<FinalWorkDTO>> getTopRated(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            HttpServletRequest request, HttpServletResponse response) {
+        if (catalogueCaching.notModified(request, response)) {
+            return null;
+        }
+        return ResponseEntity.ok(finalWorkService.getTopRated(cursor, limit));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<FinalWorkDTO>> search(@RequestParam String q) {
-        return ResponseEntity.ok(finalWorkService.searchByQuery(q));
+    public ResponseEntity<CursorPage<FinalWorkDTO>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(finalWorkService.searchByQuery(q, cursor, limit));
     }
 
     @GetMapping("/filter")
-    public ResponseEntity<List<FinalWorkDTO>> filter(@RequestParam List<String> tags) {
-        return ResponseEntity.ok(finalWorkService.filterByTags(tags));
+    public ResponseEntity<FacetedCursorPage<FinalWorkDTO>> filter(
+            @RequestParam List<String> tags,
+            @RequestParam(defaultValue = "any") String mode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(finalWorkService.filterByTags(tags, TagIndexService.Mode.parse(mode), cursor, limit));
     }
 
     @GetMapping("/{id}")
@@ -74,9 +107,11 @@ public class FinalWorkController {
     }
 
     @GetMapping("/{id}/comments")
-    public ResponseEntity<List<CommentDTO>> getComments(@PathVariable Long id) {
-        List<CommentDTO> comments = finalWorkService.getCommentsByFinalWorkId(id);
-        return ResponseEntity.ok(comments);
+    public ResponseEntity<CursorPage<CommentDTO>> getComments(
+            @PathVariable Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(finalWorkService.getCommentsByFinalWorkId(id, after, limit));
     }
 
     @PostMapping("/{id}/comments")
@@ -0,0 +1,33 @@
+package com.finalworks.controller;
+
+import com.finalworks.dto.InteractionDTO;
+import com.finalworks.dto.InteractionsRequestDTO;
+import com.finalworks.service.InteractionService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/me")
+@CrossOrigin(origins = {"http://localhost:3000", "https://localhost:3000"})
+public class InteractionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(InteractionController.class);
+
+    private final InteractionService interactionService;
+
+    public InteractionController(InteractionService interactionService) {
+        this.interactionService = interactionService;
+    }
+
+    // POST so a page of ids fits in the body; nothing is modified
+    @PostMapping("/interactions")
+    public ResponseEntity<List<InteractionDTO>> getInteractions(@Valid @RequestBody InteractionsRequestDTO request) {
+        logger.debug("Fetching interactions for {} works", request.getFinalWorkIds().size());
+        return ResponseEntity.ok(interactionService.getInteractions(request.getFinalWorkIds()));
+    }
+}
@@ -0,0 +1,29 @@
+package com.finalworks.controller;
+
+import com.finalworks.service.SearchIndexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = {"http://localhost:3000", "https://localhost:3000"})
+public class SearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+    private final SearchIndexService searchIndexService;
+
+    public SearchController(SearchIndexService searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildIndex() {
+        logger.info("Admin requested search index rebuild");
+        return ResponseEntity.ok(Map.of("indexed", searchIndexService.rebuild()));
+    }
+}
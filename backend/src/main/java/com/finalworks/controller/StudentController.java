@@ -2,15 +2,18 @@ package com.finalworks.controller;
 
 import com.finalworks.dto.StudentDTO;
 import com.finalworks.dto.StudentRequestDTO;
+import com.finalworks.event.StudentChangedEvent;
 import com.finalworks.exception.BadRequestException;
 import com.finalworks.exception.ConflictException;
 import com.finalworks.exception.ResourceNotFoundException;
 import com.finalworks.model.Student;
 import com.finalworks.repository.StudentRepository;
 import com.finalworks.service.EmailService;
+import com.finalworks.service.VerifiedTokenCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -36,6 +39,12 @@ public class StudentController {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     @GetMapping
     public ResponseEntity<List<StudentDTO>> getAllStudents() {
         logger.debug("Fetching all students");
@@ -136,6 +145,9 @@ public class StudentController {
             }
             
             Student updated = studentRepository.save(student);
+            // Cached work details, feeds and tokens embed the student's name, email and role
+            eventPublisher.publishEvent(new StudentChangedEvent(id, StudentChangedEvent.Type.UPDATED));
+            verifiedTokenCache.revoke(id);
             logger.info("Successfully updated student with id: {}", id);
             return ResponseEntity.ok(convertToDTO(updated));
         } catch (ResourceNotFoundException | ConflictException e) {
@@ -156,6 +168,8 @@ public class StudentController {
                 throw new ResourceNotFoundException("Student not found with id: " + id);
             }
             studentRepository.deleteById(id);
+            eventPublisher.publishEvent(new StudentChangedEvent(id, StudentChangedEvent.Type.DELETED));
+            verifiedTokenCache.revoke(id);
             logger.info("Successfully deleted student with id: {}", id);
             return ResponseEntity.noContent().build();
         } catch (ResourceNotFoundException e) {
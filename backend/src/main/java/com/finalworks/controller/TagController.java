@@ -2,6 +2,8 @@ package com.finalworks.controller;
 
 import com.finalworks.dto.TagDTO;
 import com.finalworks.service.TagService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,19 +20,27 @@ public class TagController {
     private static final Logger logger = LoggerFactory.getLogger(TagController.class);
 
     private final TagService tagService;
+    private final CatalogueCaching catalogueCaching;
 
-    public TagController(TagService tagService) {
+    public TagController(TagService tagService, CatalogueCaching catalogueCaching) {
         this.tagService = tagService;
+        this.catalogueCaching = catalogueCaching;
     }
 
     @GetMapping
-    public ResponseEntity<List<TagDTO>> getAllTags() {
+    public ResponseEntity<List<TagDTO>> getAllTags(HttpServletRequest request, HttpServletResponse response) {
+        if (catalogueCaching.notModified(request, response)) {
+            return null;
+        }
         logger.info("Fetching all tags");
         return ResponseEntity.ok(tagService.getAllTags());
     }
 
     @GetMapping("/popular")
-    public ResponseEntity<List<TagDTO>> getPopularTags() {
+    public ResponseEntity<List<TagDTO>> getPopularTags(HttpServletRequest request, HttpServletResponse response) {
+        if (catalogueCaching.notModified(request, response)) {
+            return null;
+        }
         logger.info("Fetching popular tags");
         return ResponseEntity.ok(tagService.getPopularTags());
     }
@@ -38,6 +48,9 @@ public class TagController {
     @PostMapping
     public ResponseEntity<TagDTO> createTag(@Valid @RequestBody TagDTO tagDTO) {
         logger.info("Creating tag: {}", tagDTO.getName());
-        return ResponseEntity.status(201).body(tagService.createTag(tagDTO));
+        TagDTO created = tagService.createTag(tagDTO);
+        // Creating a tag publishes no work event
+        catalogueCaching.markChanged();
+        return ResponseEntity.status(201).body(created);
     }
 }
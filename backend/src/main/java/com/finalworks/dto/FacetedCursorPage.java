@@ -0,0 +1,22 @@
+package com.finalworks.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class FacetedCursorPage<T> extends CursorPage<T> {
+    private long totalMatches;
+    private Map<String, Integer> facets; // tag name -> number of matching works carrying it
+
+    public FacetedCursorPage(List<T> items, String nextCursor, long totalMatches, Map<String, Integer> facets) {
+        super(items, nextCursor);
+        this.totalMatches = totalMatches;
+        this.facets = facets;
+    }
+}
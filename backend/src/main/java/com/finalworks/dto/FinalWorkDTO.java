@@ -1,5 +1,6 @@
 package com.finalworks.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -7,7 +8,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Set;
 
 @Data
@@ -33,10 +33,20 @@ public class FinalWorkDTO {
     
     private String studentName;
     private String studentEmail;
-    private List<CommentDTO> comments;
+    private Long commentCount;
     private Set<TagDTO> tags;
     private Double averageRating;
     private Long ratingCount;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String snippet; // Highlighted search match, only set on search results
+
+    // From the PDF extract, only set on the detail view once extraction has finished
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String thumbnailUrl;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer pageCount;
 }
 
 
@@ -0,0 +1,30 @@
+package com.finalworks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat listing row built by a JPQL constructor expression (see FinalWorkRepository),
+ * so listings never materialise managed FinalWork entities. The description is
+ * truncated in the query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FinalWorkSummary {
+    private Long id;
+    private String title;
+    private String description;
+    private String fileUrl;
+    private LocalDateTime submittedAt;
+    private Long studentId;
+    private String studentName;
+    private String studentEmail;
+    private Long ratingSum;
+    private Long ratingCount;
+    private Long ratingScore;
+    private Long commentCount;
+}
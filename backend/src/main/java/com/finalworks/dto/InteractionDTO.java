@@ -0,0 +1,14 @@
+package com.finalworks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionDTO {
+    private Long finalWorkId;
+    private Integer rating; // null when the user has not rated the work
+    private boolean bookmarked;
+}
@@ -0,0 +1,19 @@
+package com.finalworks.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionsRequestDTO {
+    @NotEmpty(message = "At least one final work id is required")
+    @Size(max = 200, message = "At most 200 final work ids per request")
+    private List<@NotNull Long> finalWorkIds;
+}
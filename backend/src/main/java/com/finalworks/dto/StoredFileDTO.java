@@ -0,0 +1,16 @@
+package com.finalworks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFileDTO {
+    private String sha256;
+    private String url;
+    private String fileName;
+    private String contentType;
+    private long size;
+}
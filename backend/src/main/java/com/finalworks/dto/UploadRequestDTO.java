@@ -0,0 +1,28 @@
+package com.finalworks.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadRequestDTO {
+    @NotBlank(message = "File name is required")
+    @Size(max = 255, message = "File name must not exceed 255 characters")
+    private String fileName;
+
+    @Size(max = 100, message = "Content type must not exceed 100 characters")
+    private String contentType;
+
+    @Positive(message = "Size must be positive")
+    private long size;
+
+    @NotBlank(message = "SHA-256 is required")
+    @Pattern(regexp = "[0-9a-f]{64}", message = "SHA-256 must be 64 lowercase hex characters")
+    private String sha256;
+}
@@ -0,0 +1,20 @@
+package com.finalworks.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDTO {
+    private String id;
+    private String fileName;
+    private long size;
+    private long offset;
+    private long chunkSize;
+    // Set once the last chunk has been received
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private StoredFileDTO file;
+}
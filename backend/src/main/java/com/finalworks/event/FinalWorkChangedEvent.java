@@ -0,0 +1,52 @@
+package com.finalworks.event;
+
+/**
+ * Published whenever a work, or the comments and ratings attached to it, change.
+ * Listeners that maintain derived state (search index, caches) should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ * Events relayed from another instance by {@link com.finalworks.service.CacheInvalidationBus}
+ * are marked {@link #isRemote() remote}.
+ */
+public class FinalWorkChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        COMMENTS_CHANGED,
+        RATINGS_CHANGED;
+
+        /**
+         * Whether the work's own fields or tags changed, as opposed to only its comments or ratings.
+         */
+        public boolean affectsContent() {
+            return this == CREATED || this == UPDATED || this == DELETED;
+        }
+    }
+
+    private final Long finalWorkId;
+    private final Type type;
+    private final boolean remote;
+
+    public FinalWorkChangedEvent(Long finalWorkId, Type type) {
+        this(finalWorkId, type, false);
+    }
+
+    public FinalWorkChangedEvent(Long finalWorkId, Type type, boolean remote) {
+        this.finalWorkId = finalWorkId;
+        this.type = type;
+        this.remote = remote;
+    }
+
+    public Long getFinalWorkId() {
+        return finalWorkId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+}
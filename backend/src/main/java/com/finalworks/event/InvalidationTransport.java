@@ -0,0 +1,31 @@
+package com.finalworks.event;
+
+import java.util.List;
+
+/**
+ * Carries cache invalidation messages between backend instances.
+ * Every instance receives every message, including its own; filtering is up to the receiver.
+ */
+public interface InvalidationTransport {
+
+    interface Receiver {
+
+        void onMessage(String payload);
+
+        /**
+         * The transport lost its subscription and may have missed messages in between.
+         */
+        void onResubscribed();
+    }
+
+    void start(Receiver receiver);
+
+    void send(List<String> payloads);
+
+    void stop();
+
+    /**
+     * Largest payload {@link #send} accepts.
+     */
+    int maxPayloadBytes();
+}
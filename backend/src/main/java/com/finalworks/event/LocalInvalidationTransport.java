@@ -0,0 +1,42 @@
+package com.finalworks.event;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * In-process transport: delivers messages to every receiver started in the same JVM.
+ * Used for single-instance deployments on H2, and to run several application
+ * contexts against each other without a database.
+ */
+public class LocalInvalidationTransport implements InvalidationTransport {
+
+    private static final Set<Receiver> RECEIVERS = new CopyOnWriteArraySet<>();
+
+    private Receiver receiver;
+
+    @Override
+    public void start(Receiver receiver) {
+        this.receiver = receiver;
+        RECEIVERS.add(receiver);
+    }
+
+    @Override
+    public void send(List<String> payloads) {
+        for (Receiver target : RECEIVERS) {
+            payloads.forEach(target::onMessage);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (receiver != null) {
+            RECEIVERS.remove(receiver);
+        }
+    }
+
+    @Override
+    public int maxPayloadBytes() {
+        return 64 * 1024;
+    }
+}
@@ -0,0 +1,131 @@
+package com.finalworks.event;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * PostgreSQL LISTEN/NOTIFY transport.
+ * Sends go through the regular pool; listening holds one dedicated connection outside
+ * the pool so it never competes with request traffic, and reconnects with backoff.
+ */
+public class PostgresInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresInvalidationTransport.class);
+
+    // NOTIFY payloads must be shorter than 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresInvalidationTransport(JdbcTemplate jdbcTemplate, String channel,
+                                         String url, String username, String password) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.channel = channel;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public void start(Receiver receiver) {
+        running = true;
+        listenerThread = new Thread(() -> listen(receiver), "invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void send(List<String> payloads) {
+        jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                for (String payload : payloads) {
+                    statement.setString(1, channel);
+                    statement.setString(2, payload);
+                    statement.execute();
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public int maxPayloadBytes() {
+        return MAX_PAYLOAD_BYTES;
+    }
+
+    private void listen(Receiver receiver) {
+        long backoff = 1000;
+        boolean subscribedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                logger.info("Listening for cache invalidations on channel '{}'", channel);
+                if (subscribedBefore) {
+                    receiver.onResubscribed();
+                }
+                subscribedBefore = true;
+                backoff = 1000;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        try {
+                            receiver.onMessage(notification.getParameter());
+                        } catch (Exception e) {
+                            logger.error("Error applying cache invalidation '{}'", notification.getParameter(), e);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Cache invalidation listener disconnected, retrying in {} ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+        logger.info("Cache invalidation listener stopped");
+    }
+}
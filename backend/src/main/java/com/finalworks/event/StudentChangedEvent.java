@@ -0,0 +1,41 @@
+package com.finalworks.event;
+
+/**
+ * Published when a student is updated or deleted. Their name, email and role are copied into
+ * cached work DTOs, feeds and verified tokens, which listeners drop or reload.
+ * Events relayed from another instance by {@link com.finalworks.service.CacheInvalidationBus}
+ * are marked {@link #isRemote() remote}.
+ */
+public class StudentChangedEvent {
+
+    public enum Type {
+        UPDATED,
+        DELETED
+    }
+
+    private final Long studentId;
+    private final Type type;
+    private final boolean remote;
+
+    public StudentChangedEvent(Long studentId, Type type) {
+        this(studentId, type, false);
+    }
+
+    public StudentChangedEvent(Long studentId, Type type, boolean remote) {
+        this.studentId = studentId;
+        this.type = type;
+        this.remote = remote;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+}
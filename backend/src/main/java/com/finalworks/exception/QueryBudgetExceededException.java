@@ -0,0 +1,11 @@
+package com.finalworks.exception;
+
+/**
+ * Thrown by StatementCounter when finalworks.sql.budget.enforce is on and a request breaks
+ * its SQL statement budget (integration tests).
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -8,7 +8,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comments_work_created_id", columnList = "final_work_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,60 @@
+package com.finalworks.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A queued PDF extraction, written in the same transaction as the work change that needs it
+ * so nothing is lost across restarts. A worker claims a job by moving it to RUNNING with a
+ * lease; a job whose lease ran out (the instance died) is claimed again.
+ */
+@Entity
+@Table(name = "extraction_jobs", indexes = {
+        @Index(name = "idx_extraction_jobs_status_next", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_extraction_jobs_sha256", columnList = "sha256")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractionJob {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime lockedUntil;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -4,11 +4,14 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "fatal_logs")
+@Table(name = "fatal_logs", indexes = {
+    @Index(name = "idx_fatal_logs_fingerprint", columnList = "fingerprint")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,9 +45,21 @@ public class FatalLog {
     @Column(length = 50)
     private String level;
 
+    // Identical errors within the de-duplication window share one row
+    @Column(length = 64)
+    private String fingerprint;
+
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    private Integer occurrenceCount = 1;
+
+    private LocalDateTime lastOccurredAt;
+
     @PrePersist
     protected void onCreate() {
-        timestamp = LocalDateTime.now();
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
     }
 }
 
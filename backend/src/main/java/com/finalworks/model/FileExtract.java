@@ -0,0 +1,41 @@
+package com.finalworks.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Text and first-page thumbnail extracted from a stored PDF. Keyed like the file itself,
+ * so every work pointing at the same file shares one extract.
+ */
+@Entity
+@Table(name = "file_extracts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileExtract {
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(columnDefinition = "TEXT")
+    private String text;
+
+    @Column(nullable = false)
+    private int pageCount;
+
+    // The thumbnail is itself a stored file (PNG)
+    @Column(length = 64)
+    private String thumbnailSha256;
+
+    @Column(nullable = false)
+    private LocalDateTime extractedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        extractedAt = LocalDateTime.now();
+    }
+}
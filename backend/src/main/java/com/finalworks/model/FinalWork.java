@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -13,7 +14,10 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "final_works")
+@Table(name = "final_works", indexes = {
+    @Index(name = "idx_final_works_submitted_at_id", columnList = "submitted_at DESC, id DESC"),
+    @Index(name = "idx_final_works_rating_score_id", columnList = "rating_score DESC, id DESC")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -38,6 +42,27 @@ public class FinalWork {
     @Version
     private Long version; // Optimistic locking for concurrent access
 
+    // Rating aggregates are only changed by in-database increments (see FinalWorkRepository.adjustRatingAggregates),
+    // never by flushing the entity, so a stale copy in the persistence context cannot overwrite them
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long ratingSum;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long ratingCount;
+
+    // Bayesian score ordering the top-rated list, updated with the aggregates (see RatingScoreService);
+    // 0 until scored
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long ratingScore;
+
+    // Maintained the same way as the rating aggregates (FinalWorkRepository.adjustCommentCount)
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long commentCount;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id", nullable = false)
     private Student student;
@@ -59,6 +84,10 @@ public class FinalWork {
     )
     private Set<Tag> tags = new HashSet<>();
 
+    public Double getAverageRating() {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : null;
+    }
+
     @PrePersist
     protected void onCreate() {
         submittedAt = LocalDateTime.now();
@@ -0,0 +1,40 @@
+package com.finalworks.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A file in the content-addressed store, keyed by the SHA-256 of its content: uploading the
+ * same bytes again resolves to the existing row and file on disk.
+ */
+@Entity
+@Table(name = "stored_files")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(nullable = false, length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
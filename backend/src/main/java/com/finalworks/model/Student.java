@@ -4,7 +4,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -41,14 +43,21 @@ public class Student implements UserDetails {
     @Version
     private Long version; // Optimistic locking for concurrent access
 
+    // Not part of equals/hashCode/toString: putting the entity in a Set would load the whole collection
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @OneToMany(mappedBy = "student", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<FinalWork> finalWorks = new ArrayList<>();
 
     @Override
     @JsonIgnore
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        Role effectiveRole = role != null ? role : Role.USER;
-        return List.of(new SimpleGrantedAuthority("ROLE_" + effectiveRole.name()));
+        return List.of(new SimpleGrantedAuthority("ROLE_" + getEffectiveRole().name()));
+    }
+
+    @JsonIgnore
+    public Role getEffectiveRole() {
+        return role != null ? role : Role.USER;
     }
 
     @Override
@@ -0,0 +1,66 @@
+package com.finalworks.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable upload in progress. Chunks are written straight into a part file at their
+ * offset. A chunk first claims the offset (claimToken, until claimedUntil) and receivedBytes
+ * only advances for the claim holder, so a chunk sent twice, concurrently or out of order is
+ * rejected before it writes and the client resumes from the stored offset. Unless the storage
+ * directory is shared, the part file lives on nodeId and only that instance accepts chunks.
+ */
+@Entity
+@Table(name = "upload_sessions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSession {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private Student student;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false, length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long totalSize;
+
+    @Column(nullable = false)
+    private long receivedBytes;
+
+    // SHA-256 announced by the client, checked once the upload is complete
+    @Column(length = 64)
+    private String expectedSha256;
+
+    @Column(length = 100)
+    private String nodeId;
+
+    @Column(length = 36)
+    private String claimToken;
+
+    private LocalDateTime claimedUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.finalworks.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Transaction-scoped locks that let a scheduled job run on one instance at a time.
+ * PostgreSQL uses pg_try_advisory_xact_lock, released when the transaction ends; H2 (dev
+ * profile, an in-memory database owned by a single instance) always grants the lock.
+ */
+@Repository
+public class AdvisoryLockRepository {
+
+    // Arbitrary, but must not be reused by another job
+    public static final long RATING_RECONCILIATION = 0x6677_0001L;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final boolean postgres;
+
+    public AdvisoryLockRepository(EntityManagerFactory entityManagerFactory) {
+        this.postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    /** Must be called inside a transaction; false when another transaction holds the lock. */
+    public boolean tryLockForTransaction(long key) {
+        if (!postgres) {
+            return true;
+        }
+        return (Boolean) entityManager.createNativeQuery("SELECT pg_try_advisory_xact_lock(:key)")
+                .setParameter("key", key)
+                .getSingleResult();
+    }
+}
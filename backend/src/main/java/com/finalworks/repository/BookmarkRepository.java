@@ -4,15 +4,22 @@ import com.finalworks.model.Bookmark;
 import com.finalworks.model.FinalWork;
 import com.finalworks.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BookmarkRepository extends JpaRepository<Bookmark, Long> {
     Optional<Bookmark> findByStudentAndFinalWork(Student student, FinalWork finalWork);
-    boolean existsByStudentAndFinalWork(Student student, FinalWork finalWork);
+    Optional<Bookmark> findByStudentIdAndFinalWorkId(Long studentId, Long finalWorkId);
     List<Bookmark> findByStudentOrderByBookmarkedAtDesc(Student student);
     void deleteByStudentAndFinalWork(Student student, FinalWork finalWork);
+
+    // Served by the (student_id, final_work_id) unique index
+    @Query("SELECT b.finalWork.id FROM Bookmark b WHERE b.student.id = :studentId AND b.finalWork.id IN :finalWorkIds")
+    List<Long> findBookmarkedWorkIds(@Param("studentId") Long studentId, @Param("finalWorkIds") Collection<Long> finalWorkIds);
 }
@@ -1,13 +1,28 @@
 package com.finalworks.repository;
 
 import com.finalworks.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByFinalWorkIdOrderByCreatedAtAsc(Long finalWorkId);
-}
 
+    // Oldest first, keyset-paged over idx_comments_work_created_id (final_work_id, created_at, id)
+
+    @Query("SELECT c FROM Comment c WHERE c.finalWork.id = :finalWorkId ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findPageByFinalWorkId(@Param("finalWorkId") Long finalWorkId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.finalWork.id = :finalWorkId " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findByFinalWorkIdAfter(@Param("finalWorkId") Long finalWorkId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+}
@@ -0,0 +1,54 @@
+package com.finalworks.repository;
+
+import com.finalworks.model.ExtractionJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExtractionJobRepository extends JpaRepository<ExtractionJob, Long> {
+
+    String CLAIMABLE = "((j.status = com.finalworks.model.ExtractionJob$Status.PENDING AND j.nextAttemptAt <= :now) " +
+            "OR (j.status = com.finalworks.model.ExtractionJob$Status.RUNNING AND j.lockedUntil < :now))";
+
+    boolean existsBySha256AndStatusIn(String sha256, Collection<ExtractionJob.Status> statuses);
+
+    @Query("SELECT j.id FROM ExtractionJob j WHERE " + CLAIMABLE + " ORDER BY j.nextAttemptAt, j.id")
+    List<Long> findClaimableIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // 0 when another worker or instance claimed the job first
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExtractionJob j SET j.status = com.finalworks.model.ExtractionJob$Status.RUNNING, " +
+           "j.lockedUntil = :lockedUntil, j.attempts = j.attempts + 1 WHERE j.id = :id AND " + CLAIMABLE)
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExtractionJob j SET j.status = com.finalworks.model.ExtractionJob$Status.PENDING, " +
+           "j.nextAttemptAt = :nextAttemptAt, j.lockedUntil = NULL, j.lastError = :error WHERE j.id = :id")
+    void retryLater(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExtractionJob j SET j.status = com.finalworks.model.ExtractionJob$Status.FAILED, " +
+           "j.lockedUntil = NULL, j.lastError = :error WHERE j.id = :id")
+    void fail(@Param("id") Long id, @Param("error") String error);
+
+    // Hands a claimed but never started job back without counting the attempt
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExtractionJob j SET j.status = com.finalworks.model.ExtractionJob$Status.PENDING, " +
+           "j.lockedUntil = NULL, j.attempts = j.attempts - 1 WHERE j.id = :id")
+    void release(@Param("id") Long id);
+
+    long countByStatus(ExtractionJob.Status status);
+}
@@ -0,0 +1,9 @@
+package com.finalworks.repository;
+
+import com.finalworks.model.FileExtract;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FileExtractRepository extends JpaRepository<FileExtract, String> {
+}
@@ -1,34 +1,146 @@
 package com.finalworks.repository;
 
+import com.finalworks.dto.FinalWorkSummary;
 import com.finalworks.model.FinalWork;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface FinalWorkRepository extends JpaRepository<FinalWork, Long> {
+
+    int SUMMARY_DESCRIPTION_LENGTH = 300;
+
+    // Bayesian average rating in millionths of a star: (prior + ratingSum * SCORE_SCALE) / (weight + ratingCount),
+    // where prior = weight * prior mean * SCORE_SCALE. Stored in FinalWork.ratingScore; integer division, so Java
+    // and SQL agree exactly (see RatingScoreService).
+    long SCORE_SCALE = 1_000_000L;
+    String BAYESIAN_SCORE = "((:prior + fw.ratingSum * " + SCORE_SCALE + ") / (:weight + fw.ratingCount))";
+
+    // Aggregates as computed from the ratings and comments tables (see RatingReconciliationService)
+    String COMPUTED_RATING_SUM = "COALESCE((SELECT SUM(r.rating) FROM ratings r WHERE r.final_work_id = fw.id), 0)";
+    String COMPUTED_RATING_COUNT = "(SELECT COUNT(*) FROM ratings r WHERE r.final_work_id = fw.id)";
+    String COMPUTED_COMMENT_COUNT = "(SELECT COUNT(*) FROM comments c WHERE c.final_work_id = fw.id)";
+
+    String SUMMARY_SELECT = "SELECT new com.finalworks.dto.FinalWorkSummary(fw.id, fw.title, " +
+            "SUBSTRING(fw.description, 1, " + SUMMARY_DESCRIPTION_LENGTH + "), fw.fileUrl, fw.submittedAt, " +
+            "s.id, s.name, s.email, fw.ratingSum, fw.ratingCount, fw.ratingScore, fw.commentCount) " +
+            "FROM FinalWork fw JOIN fw.student s ";
+
     List<FinalWork> findByStudentId(Long studentId);
-    List<FinalWork> findAllByOrderBySubmittedAtDesc();
     boolean existsByTitle(String title);
     Optional<FinalWork> findByTitle(String title);
 
-    @Query("SELECT fw FROM FinalWork fw WHERE fw.title ILIKE %:query% OR fw.description ILIKE %:query%")
-    List<FinalWork> findByTitleOrDescriptionContainingIgnoreCase(String query);
+    // Keyset pages: rows strictly after the (key, id) of the previous page's last row.
+    // Size comes from the Pageable; its offset is always 0.
 
-    @Query("SELECT fw FROM FinalWork fw JOIN fw.tags t WHERE t.name IN :tagNames")
-    List<FinalWork> findByTagNames(List<String> tagNames);
+    @Query("SELECT fw FROM FinalWork fw " +
+           "WHERE fw.submittedAt < :submittedAt OR (fw.submittedAt = :submittedAt AND fw.id < :id) " +
+           "ORDER BY fw.submittedAt DESC, fw.id DESC")
+    List<FinalWork> findNewest(@Param("submittedAt") LocalDateTime submittedAt, @Param("id") Long id, Pageable pageable);
 
-    @Query("SELECT fw FROM FinalWork fw ORDER BY SIZE(fw.ratings) DESC, fw.submittedAt DESC")
-    List<FinalWork> findTopRated();
+    // Listing projections: flat rows, no managed entities, and no auto-flush of the persistence context
 
-    @Query("SELECT fw FROM FinalWork fw ORDER BY fw.submittedAt DESC")
-    List<FinalWork> findNewest();
+    @Query(SUMMARY_SELECT +
+           "WHERE fw.submittedAt < :submittedAt OR (fw.submittedAt = :submittedAt AND fw.id < :id) " +
+           "ORDER BY fw.submittedAt DESC, fw.id DESC")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<FinalWorkSummary> findNewestSummaries(@Param("submittedAt") LocalDateTime submittedAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY_SELECT +
+           "WHERE fw.ratingScore < :score OR (fw.ratingScore = :score AND fw.id < :id) " +
+           "ORDER BY fw.ratingScore DESC, fw.id DESC")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<FinalWorkSummary> findTopRatedSummaries(@Param("score") long score, @Param("id") Long id, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE fw.id IN :ids")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<FinalWorkSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT fw.id, t.id, t.name FROM FinalWork fw JOIN fw.tags t WHERE fw.id IN :ids")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<Object[]> findTagRowsByWorkIds(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT fw FROM FinalWork fw LEFT JOIN FETCH fw.tags WHERE fw.id = :id")
     Optional<FinalWork> findByIdWithTags(@Param("id") Long id);
+
+    // Every SET expression reads the row as it was before the update
+    @Modifying
+    @Query("UPDATE FinalWork fw SET fw.ratingSum = fw.ratingSum + :sumDelta, fw.ratingCount = fw.ratingCount + :countDelta, " +
+           "fw.ratingScore = (:prior + (fw.ratingSum + :sumDelta) * " + SCORE_SCALE + ") / (:weight + fw.ratingCount + :countDelta) " +
+           "WHERE fw.id = :id")
+    int adjustRatingAggregates(@Param("id") Long id, @Param("sumDelta") long sumDelta, @Param("countDelta") long countDelta,
+                               @Param("prior") long prior, @Param("weight") long weight);
+
+    @Modifying
+    @Query("UPDATE FinalWork fw SET fw.ratingScore = " + BAYESIAN_SCORE + " WHERE fw.ratingScore = 0")
+    int scoreUnscored(@Param("prior") long prior, @Param("weight") long weight);
+
+    // Locks the rows, so increments committed after this statement wait for the reconciliation
+    // and the ones committed before it are visible to the rebuild statements that follow
+    @Query(value = "SELECT fw.id FROM final_works fw WHERE fw.rating_sum <> " + COMPUTED_RATING_SUM +
+                   " OR fw.rating_count <> " + COMPUTED_RATING_COUNT +
+                   " OR fw.rating_score <> (:prior + " + COMPUTED_RATING_SUM + " * " + SCORE_SCALE + ") / (:weight + " + COMPUTED_RATING_COUNT + ")" +
+                   " FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockDriftedRatingAggregates(@Param("prior") long prior, @Param("weight") long weight);
+
+    @Modifying
+    @Query(value = "UPDATE final_works fw SET rating_sum = " + COMPUTED_RATING_SUM + ", rating_count = " + COMPUTED_RATING_COUNT +
+                   " WHERE fw.id IN :ids",
+           nativeQuery = true)
+    int rebuildRatingAggregates(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE FinalWork fw SET fw.ratingScore = " + BAYESIAN_SCORE + " WHERE fw.id IN :ids")
+    int rebuildRatingScores(@Param("prior") long prior, @Param("weight") long weight, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE FinalWork fw SET fw.commentCount = fw.commentCount + :delta WHERE fw.id = :id")
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Query(value = "SELECT fw.id FROM final_works fw WHERE fw.comment_count <> " + COMPUTED_COMMENT_COUNT + " FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockDriftedCommentCounts();
+
+    @Modifying
+    @Query(value = "UPDATE final_works fw SET comment_count = " + COMPUTED_COMMENT_COUNT + " WHERE fw.id IN :ids",
+           nativeQuery = true)
+    int rebuildCommentCounts(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT fw.id, t FROM FinalWork fw JOIN fw.tags t WHERE fw.id IN :ids")
+    List<Object[]> findTagsByWorkIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT fw.id, t.name FROM FinalWork fw JOIN fw.tags t")
+    List<Object[]> findAllWorkTagNames();
+
+    @Query("SELECT fw.id FROM FinalWork fw WHERE fw.fileUrl LIKE %:sha256")
+    List<Long> findIdsByFileSha256(@Param("sha256") String sha256);
+
+    @Query("SELECT DISTINCT fw.fileUrl FROM FinalWork fw WHERE fw.fileUrl LIKE %:prefix%")
+    List<String> findFileUrlsContaining(@Param("prefix") String prefix);
 }
 
@@ -4,20 +4,30 @@ import com.finalworks.model.FinalWork;
 import com.finalworks.model.Rating;
 import com.finalworks.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RatingRepository extends JpaRepository<Rating, Long> {
     Optional<Rating> findByStudentAndFinalWork(Student student, FinalWork finalWork);
-    boolean existsByStudentAndFinalWork(Student student, FinalWork finalWork);
     void deleteByStudentAndFinalWork(Student student, FinalWork finalWork);
 
-    @Query("SELECT AVG(r.rating) FROM Rating r WHERE r.finalWork = :finalWork")
-    Double getAverageRatingForWork(FinalWork finalWork);
+    // [id, rating] of an existing rating, locked until the end of the transaction so a concurrent change waits
+    @Query(value = "SELECT id, rating FROM ratings WHERE student_id = :studentId AND final_work_id = :finalWorkId FOR UPDATE",
+           nativeQuery = true)
+    List<Object[]> lockRating(@Param("studentId") Long studentId, @Param("finalWorkId") Long finalWorkId);
 
-    @Query("SELECT COUNT(r) FROM Rating r WHERE r.finalWork = :finalWork")
-    Long getRatingCountForWork(FinalWork finalWork);
+    @Modifying
+    @Query("UPDATE Rating r SET r.rating = :rating, r.version = r.version + 1 WHERE r.id = :id")
+    int updateRating(@Param("id") Long id, @Param("rating") int rating);
+
+    // [finalWorkId, rating] of one student's ratings, served by the (student_id, final_work_id) unique index
+    @Query("SELECT r.finalWork.id, r.rating FROM Rating r WHERE r.student.id = :studentId AND r.finalWork.id IN :finalWorkIds")
+    List<Object[]> findRatingRows(@Param("studentId") Long studentId, @Param("finalWorkIds") Collection<Long> finalWorkIds);
 }
@@ -0,0 +1,9 @@
+package com.finalworks.repository;
+
+import com.finalworks.model.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -12,7 +13,11 @@ import java.util.Set;
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
     Optional<Tag> findByName(String name);
+    List<Tag> findByNameIn(Collection<String> names);
     boolean existsByName(String name);
+
+    @Query("SELECT t.name, t.id FROM Tag t")
+    List<Object[]> findAllNamesAndIds();
     
     @Query("SELECT t FROM Tag t JOIN t.finalWorks fw GROUP BY t.id ORDER BY COUNT(fw.id) DESC")
     List<Tag> findAllByPopularityDesc();
@@ -0,0 +1,42 @@
+package com.finalworks.repository;
+
+import com.finalworks.model.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    // Each runs on its own so no connection is held while a chunk streams in.
+    // 0 when the upload is elsewhere or another chunk holds an unexpired claim on it
+    @Transactional
+    @Modifying
+    @Query("UPDATE UploadSession u SET u.claimToken = :token, u.claimedUntil = :claimedUntil " +
+           "WHERE u.id = :id AND u.receivedBytes = :offset AND (u.claimedUntil IS NULL OR u.claimedUntil < :now)")
+    int claim(@Param("id") String id, @Param("offset") long offset, @Param("token") String token,
+              @Param("now") LocalDateTime now, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    // 0 when the claim ran out and another chunk took it over
+    @Transactional
+    @Modifying
+    @Query("UPDATE UploadSession u SET u.receivedBytes = :end, u.updatedAt = :now, u.claimToken = NULL, u.claimedUntil = NULL " +
+           "WHERE u.id = :id AND u.claimToken = :token")
+    int advance(@Param("id") String id, @Param("token") String token, @Param("end") long end,
+                @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UploadSession u SET u.claimToken = NULL, u.claimedUntil = NULL WHERE u.id = :id AND u.claimToken = :token")
+    void release(@Param("id") String id, @Param("token") String token);
+
+    List<UploadSession> findByUpdatedAtBefore(LocalDateTime cutoff);
+
+    List<UploadSession> findByNodeIdAndUpdatedAtBefore(String nodeId, LocalDateTime cutoff);
+}
@@ -0,0 +1,152 @@
+package com.finalworks.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Single-statement "insert unless the unique key already exists" for ratings, bookmarks and
+ * tags. Unlike an existsBy/findBy check followed by save, concurrent calls cannot both
+ * insert: PostgreSQL resolves them with INSERT ... ON CONFLICT DO NOTHING, H2 (dev profile)
+ * with MERGE ... WHEN NOT MATCHED. Ratings and bookmarks return the id of the inserted row;
+ * empty means it already existed or the final work does not exist (the row is only inserted
+ * for an existing work). Tags are inserted in bulk, any number of names in one statement.
+ *
+ * H2's MERGE only matches committed rows, so when a concurrent transaction inserts the same
+ * key first, the statement fails with a unique violation as soon as that transaction commits.
+ * It is then repeated and matches the committed row. The H2 statements run on the session's
+ * JDBC connection, because a failed JPA query would mark the whole transaction rollback-only.
+ */
+@Repository
+public class UpsertRepository {
+
+    private static final String POSTGRES_RATING =
+            "INSERT INTO ratings (student_id, final_work_id, rating, version) " +
+            "SELECT :studentId, fw.id, :rating, 0 FROM final_works fw WHERE fw.id = :finalWorkId " +
+            "ON CONFLICT (student_id, final_work_id) DO NOTHING RETURNING id";
+    private static final String H2_RATING =
+            "SELECT id FROM FINAL TABLE (MERGE INTO ratings r " +
+            "USING (SELECT CAST(? AS BIGINT) AS student_id, fw.id AS final_work_id FROM final_works fw WHERE fw.id = ?) s " +
+            "ON r.student_id = s.student_id AND r.final_work_id = s.final_work_id " +
+            "WHEN NOT MATCHED THEN INSERT (student_id, final_work_id, rating, version) VALUES (s.student_id, s.final_work_id, ?, 0))";
+
+    private static final String POSTGRES_BOOKMARK =
+            "INSERT INTO bookmarks (student_id, final_work_id, bookmarked_at, version) " +
+            "SELECT :studentId, fw.id, :bookmarkedAt, 0 FROM final_works fw WHERE fw.id = :finalWorkId " +
+            "ON CONFLICT (student_id, final_work_id) DO NOTHING RETURNING id";
+    private static final String H2_BOOKMARK =
+            "SELECT id FROM FINAL TABLE (MERGE INTO bookmarks b " +
+            "USING (SELECT CAST(? AS BIGINT) AS student_id, fw.id AS final_work_id FROM final_works fw WHERE fw.id = ?) s " +
+            "ON b.student_id = s.student_id AND b.final_work_id = s.final_work_id " +
+            "WHEN NOT MATCHED THEN INSERT (student_id, final_work_id, bookmarked_at, version) VALUES (s.student_id, s.final_work_id, ?, 0))";
+
+    // %s is one "(CAST(:nameN AS VARCHAR(50)))" row per name (H2: "(CAST(? AS VARCHAR(50)))"),
+    // so any number of tags is one statement
+    private static final String POSTGRES_TAGS =
+            "INSERT INTO tags (name, version) SELECT v.name, 0 FROM (VALUES %s) AS v(name) " +
+            "ON CONFLICT (name) DO NOTHING RETURNING id";
+    private static final String H2_TAGS =
+            "SELECT id FROM FINAL TABLE (MERGE INTO tags t USING (VALUES %s) s(name) " +
+            "ON t.name = s.name WHEN NOT MATCHED THEN INSERT (name, version) VALUES (s.name, 0))";
+
+    // A repeat only fails again if yet another transaction inserted one of the keys meanwhile
+    private static final int MAX_H2_MERGE_ATTEMPTS = 5;
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final boolean postgres;
+
+    public UpsertRepository(EntityManagerFactory entityManagerFactory) {
+        this.postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    public Optional<Long> insertRatingIfAbsent(Long studentId, Long finalWorkId, int rating) {
+        if (!postgres) {
+            return firstId(mergeOnH2(H2_RATING, List.of(studentId, finalWorkId, rating)));
+        }
+        return firstId(entityManager.createNativeQuery(POSTGRES_RATING)
+                .setParameter("studentId", studentId)
+                .setParameter("finalWorkId", finalWorkId)
+                .setParameter("rating", rating)
+                .getResultList());
+    }
+
+    public Optional<Long> insertBookmarkIfAbsent(Long studentId, Long finalWorkId, LocalDateTime bookmarkedAt) {
+        if (!postgres) {
+            return firstId(mergeOnH2(H2_BOOKMARK, List.of(studentId, finalWorkId, bookmarkedAt)));
+        }
+        return firstId(entityManager.createNativeQuery(POSTGRES_BOOKMARK)
+                .setParameter("studentId", studentId)
+                .setParameter("finalWorkId", finalWorkId)
+                .setParameter("bookmarkedAt", bookmarkedAt)
+                .getResultList());
+    }
+
+    /** Inserts the tags (distinct names) that do not exist yet; returns the number of tags inserted. */
+    public int insertTagsIfAbsent(Collection<String> names) {
+        StringJoiner rows = new StringJoiner(", ");
+        for (int i = 0; i < names.size(); i++) {
+            rows.add(postgres ? "(CAST(:name" + i + " AS VARCHAR(50)))" : "(CAST(? AS VARCHAR(50)))");
+        }
+        if (!postgres) {
+            return mergeOnH2(String.format(H2_TAGS, rows), List.copyOf(names)).size();
+        }
+        Query query = entityManager.createNativeQuery(String.format(POSTGRES_TAGS, rows));
+        int i = 0;
+        for (String name : names) {
+            query.setParameter("name" + i++, name);
+        }
+        return query.getResultList().size();
+    }
+
+    /** Runs an H2 SELECT id FROM FINAL TABLE (MERGE ...), repeating it after a unique violation. */
+    private List<Long> mergeOnH2(String sql, List<?> parameters) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        // A native JPA query would have flushed pending changes first
+        session.flush();
+        StatementInspector inspector = session.getJdbcSessionContext().getStatementInspector();
+        return session.doReturningWork(connection -> {
+            for (int attempt = 1; ; attempt++) {
+                try (PreparedStatement statement = connection.prepareStatement(inspector.inspect(sql))) {
+                    for (int i = 0; i < parameters.size(); i++) {
+                        statement.setObject(i + 1, parameters.get(i));
+                    }
+                    List<Long> ids = new ArrayList<>();
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            ids.add(resultSet.getLong(1));
+                        }
+                    }
+                    return ids;
+                } catch (SQLException e) {
+                    if (!UNIQUE_VIOLATION.equals(e.getSQLState()) || attempt == MAX_H2_MERGE_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+        });
+    }
+
+    private static Optional<Long> firstId(List<?> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(((Number) rows.get(0)).longValue());
+    }
+}
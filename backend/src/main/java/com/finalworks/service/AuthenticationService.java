@@ -7,6 +7,7 @@ import com.finalworks.exception.ConflictException;
 import com.finalworks.model.Role;
 import com.finalworks.model.Student;
 import com.finalworks.repository.StudentRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -14,6 +15,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Timed(value = "finalworks.service", histogram = true)
 public class AuthenticationService {
 
     private final StudentRepository studentRepository;
@@ -8,6 +8,8 @@ import com.finalworks.model.FinalWork;
 import com.finalworks.model.Student;
 import com.finalworks.repository.BookmarkRepository;
 import com.finalworks.repository.FinalWorkRepository;
+import com.finalworks.repository.UpsertRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.OptimisticLockingFailureException;
@@ -16,22 +18,32 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "finalworks.service", histogram = true)
 public class BookmarkService {
 
     private static final Logger logger = LoggerFactory.getLogger(BookmarkService.class);
 
+    // Insert and lookup can both miss when the bookmark is removed in between; retried this many times
+    private static final int MAX_UPSERT_ATTEMPTS = 3;
+
     private final BookmarkRepository bookmarkRepository;
     private final FinalWorkRepository finalWorkRepository;
+    private final UpsertRepository upsertRepository;
 
-    public BookmarkService(BookmarkRepository bookmarkRepository, FinalWorkRepository finalWorkRepository) {
+    public BookmarkService(BookmarkRepository bookmarkRepository, FinalWorkRepository finalWorkRepository,
+                           UpsertRepository upsertRepository) {
         this.bookmarkRepository = bookmarkRepository;
         this.finalWorkRepository = finalWorkRepository;
+        this.upsertRepository = upsertRepository;
     }
 
+    /** Bookmarks a work; bookmarking it again returns the existing bookmark. */
     @Transactional
     public BookmarkDTO bookmarkWork(Long finalWorkId) {
         logger.info("Bookmarking work {}", finalWorkId);
@@ -39,21 +51,27 @@ public class BookmarkService {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             Student student = (Student) authentication.getPrincipal();
 
-            FinalWork finalWork = finalWorkRepository.findById(finalWorkId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Final work not found with id: " + finalWorkId));
-
-            if (bookmarkRepository.existsByStudentAndFinalWork(student, finalWork)) {
-                logger.warn("Student {} already bookmarked work {}", student.getId(), finalWorkId);
-                throw new ConflictException("You have already bookmarked this work");
+            for (int attempt = 0; attempt < MAX_UPSERT_ATTEMPTS; attempt++) {
+                LocalDateTime now = LocalDateTime.now();
+                Optional<Long> inserted = upsertRepository.insertBookmarkIfAbsent(student.getId(), finalWorkId, now);
+                if (inserted.isPresent()) {
+                    logger.info("Created bookmark with id: {}", inserted.get());
+                    return new BookmarkDTO(inserted.get(), student.getId(), finalWorkId, now);
+                }
+
+                Optional<Bookmark> existing = bookmarkRepository.findByStudentIdAndFinalWorkId(student.getId(), finalWorkId);
+                if (existing.isPresent()) {
+                    logger.info("Student {} already bookmarked work {}", student.getId(), finalWorkId);
+                    return convertToDTO(existing.get());
+                }
+
+                // Either the work does not exist or the bookmark was removed between the two statements
+                if (!finalWorkRepository.existsById(finalWorkId)) {
+                    throw new ResourceNotFoundException("Final work not found with id: " + finalWorkId);
+                }
             }
-
-            Bookmark bookmark = new Bookmark();
-            bookmark.setStudent(student);
-            bookmark.setFinalWork(finalWork);
-
-            Bookmark saved = bookmarkRepository.save(bookmark);
-            logger.info("Created bookmark with id: {}", saved.getId());
-            return convertToDTO(saved);
+            logger.warn("Bookmark of work {} by student {} kept changing, giving up", finalWorkId, student.getId());
+            throw new ConflictException("The bookmark was changed concurrently. Please try again.");
         } catch (OptimisticLockingFailureException e) {
             logger.warn("Optimistic lock exception when bookmarking work {}", finalWorkId, e);
             throw new ResourceNotFoundException("The work was modified by another user. Please refresh and try again.");
@@ -85,6 +103,7 @@ public class BookmarkService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<BookmarkDTO> getUserBookmarks() {
         logger.debug("Fetching user bookmarks");
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -0,0 +1,258 @@
+package com.finalworks.service;
+
+import com.finalworks.event.FinalWorkChangedEvent;
+import com.finalworks.event.InvalidationTransport;
+import com.finalworks.event.StudentChangedEvent;
+import com.finalworks.model.FinalWork;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps per-instance caches and indexes coherent across replicas.
+ * Committed local changes are coalesced per work (and per student) for a short window and
+ * broadcast in batches; changes received from other instances are replayed locally as remote
+ * FinalWorkChangedEvents and StudentChangedEvents, so every listener (detail cache, search and
+ * tag indexes, verified tokens) reacts to them the same way as to its own writes.
+ *
+ * Message format: {@code <nodeId>|<workId>:<TYPE>,...,s<studentId>:<TYPE>,...}
+ */
+@Service
+public class CacheInvalidationBus implements InvalidationTransport.Receiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    private static final String STUDENT_PREFIX = "s";
+
+    private final InvalidationTransport transport;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
+    private final FinalWorkDetailCache finalWorkDetailCache;
+    private final TagIndexService tagIndexService;
+    private final SearchIndexService searchIndexService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final CatalogueVersionService catalogueVersionService;
+    private final long batchWindowMillis;
+
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<Long, FinalWorkChangedEvent.Type> pending = new ConcurrentHashMap<>();
+    private final Map<Long, StudentChangedEvent.Type> pendingStudents = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "invalidation-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong sentChanges = new AtomicLong();
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong receivedChanges = new AtomicLong();
+
+    public CacheInvalidationBus(InvalidationTransport transport,
+                                ApplicationEventPublisher eventPublisher,
+                                EntityManagerFactory entityManagerFactory,
+                                FinalWorkDetailCache finalWorkDetailCache,
+                                TagIndexService tagIndexService,
+                                SearchIndexService searchIndexService,
+                                VerifiedTokenCache verifiedTokenCache,
+                                CatalogueVersionService catalogueVersionService,
+                                @Value("${finalworks.cache.invalidation.batch-window:20ms}") Duration batchWindow) {
+        this.transport = transport;
+        this.eventPublisher = eventPublisher;
+        this.entityManagerFactory = entityManagerFactory;
+        this.finalWorkDetailCache = finalWorkDetailCache;
+        this.tagIndexService = tagIndexService;
+        this.searchIndexService = searchIndexService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.catalogueVersionService = catalogueVersionService;
+        this.batchWindowMillis = batchWindow.toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        transport.start(this);
+        logger.info("Cache invalidation bus started on node {}", nodeId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            if (flusher.awaitTermination(2, TimeUnit.SECONDS) && !(pending.isEmpty() && pendingStudents.isEmpty())) {
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true, condition = "!#event.remote")
+    public void onFinalWorkChanged(FinalWorkChangedEvent event) {
+        pending.merge(event.getFinalWorkId(), event.getType(), CacheInvalidationBus::coalesce);
+        scheduleFlush(batchWindowMillis);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true, condition = "!#event.remote")
+    public void onStudentChanged(StudentChangedEvent event) {
+        pendingStudents.merge(event.getStudentId(), event.getType(), CacheInvalidationBus::coalesce);
+        scheduleFlush(batchWindowMillis);
+    }
+
+    @Override
+    public void onMessage(String payload) {
+        int separator = payload.indexOf('|');
+        if (separator < 0) {
+            logger.warn("Ignoring malformed cache invalidation message: {}", payload);
+            return;
+        }
+        if (payload.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        for (String entry : payload.substring(separator + 1).split(",")) {
+            int colon = entry.indexOf(':');
+            if (entry.startsWith(STUDENT_PREFIX)) {
+                Long studentId = Long.valueOf(entry.substring(STUDENT_PREFIX.length(), colon));
+                StudentChangedEvent.Type type = StudentChangedEvent.Type.valueOf(entry.substring(colon + 1));
+                eventPublisher.publishEvent(new StudentChangedEvent(studentId, type, true));
+                receivedChanges.incrementAndGet();
+                continue;
+            }
+            Long workId = Long.valueOf(entry.substring(0, colon));
+            FinalWorkChangedEvent.Type type = FinalWorkChangedEvent.Type.valueOf(entry.substring(colon + 1));
+            entityManagerFactory.getCache().evict(FinalWork.class, workId);
+            eventPublisher.publishEvent(new FinalWorkChangedEvent(workId, type, true));
+            receivedChanges.incrementAndGet();
+        }
+        logger.debug("Applied cache invalidations from node {}: {}", payload.substring(0, separator), payload);
+    }
+
+    @Override
+    public void onResubscribed() {
+        // Anything may have changed while we were not listening
+        logger.warn("Cache invalidation listener resubscribed; dropping caches and rebuilding indexes");
+        entityManagerFactory.getCache().evictAll();
+        finalWorkDetailCache.evictAll();
+        verifiedTokenCache.revokeAll();
+        catalogueVersionService.markChanged();
+        tagIndexService.load();
+        searchIndexService.rebuild();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("nodeId", nodeId);
+        result.put("transport", transport.getClass().getSimpleName());
+        result.put("pending", pending.size() + pendingStudents.size());
+        result.put("sentChanges", sentChanges.get());
+        result.put("sentMessages", sentMessages.get());
+        result.put("receivedChanges", receivedChanges.get());
+        return result;
+    }
+
+    private void scheduleFlush(long delayMillis) {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // Shutting down; shutdown() sends what is left
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        Map<Long, FinalWorkChangedEvent.Type> batch = drain(pending);
+        Map<Long, StudentChangedEvent.Type> studentBatch = drain(pendingStudents);
+        int changes = batch.size() + studentBatch.size();
+        if (changes == 0) {
+            return;
+        }
+        List<String> items = new ArrayList<>(changes);
+        batch.forEach((workId, type) -> items.add(workId + ":" + type.name()));
+        studentBatch.forEach((studentId, type) -> items.add(STUDENT_PREFIX + studentId + ":" + type.name()));
+        List<String> payloads = encode(items);
+        try {
+            transport.send(payloads);
+            sentChanges.addAndGet(changes);
+            sentMessages.addAndGet(payloads.size());
+            logger.debug("Broadcast {} cache invalidations in {} messages", changes, payloads.size());
+        } catch (Exception e) {
+            logger.error("Error broadcasting {} cache invalidations, retrying", changes, e);
+            batch.forEach((workId, type) -> pending.merge(workId, type, CacheInvalidationBus::coalesce));
+            studentBatch.forEach((studentId, type) -> pendingStudents.merge(studentId, type, CacheInvalidationBus::coalesce));
+            scheduleFlush(RETRY_DELAY_MILLIS);
+        }
+    }
+
+    private static <T> Map<Long, T> drain(Map<Long, T> source) {
+        Map<Long, T> batch = new LinkedHashMap<>();
+        for (Long id : new ArrayList<>(source.keySet())) {
+            T type = source.remove(id);
+            if (type != null) {
+                batch.put(id, type);
+            }
+        }
+        return batch;
+    }
+
+    private List<String> encode(List<String> items) {
+        List<String> payloads = new ArrayList<>();
+        String prefix = nodeId + "|";
+        StringBuilder current = new StringBuilder(prefix);
+        for (String item : items) {
+            if (current.length() > prefix.length() && current.length() + 1 + item.length() > transport.maxPayloadBytes()) {
+                payloads.add(current.toString());
+                current = new StringBuilder(prefix);
+            }
+            if (current.length() > prefix.length()) {
+                current.append(',');
+            }
+            current.append(item);
+        }
+        payloads.add(current.toString());
+        return payloads;
+    }
+
+    /**
+     * Folds two changes to the same work into one that makes receivers do at least as much.
+     */
+    private static FinalWorkChangedEvent.Type coalesce(FinalWorkChangedEvent.Type previous, FinalWorkChangedEvent.Type next) {
+        if (previous == next) {
+            return next;
+        }
+        if (previous == FinalWorkChangedEvent.Type.DELETED || next == FinalWorkChangedEvent.Type.DELETED) {
+            return FinalWorkChangedEvent.Type.DELETED;
+        }
+        if (previous == FinalWorkChangedEvent.Type.CREATED && !next.affectsContent()) {
+            return FinalWorkChangedEvent.Type.CREATED;
+        }
+        // Content changes re-read everything, so they cover comment and rating changes too
+        return FinalWorkChangedEvent.Type.UPDATED;
+    }
+
+    private static StudentChangedEvent.Type coalesce(StudentChangedEvent.Type previous, StudentChangedEvent.Type next) {
+        return previous == StudentChangedEvent.Type.DELETED ? previous : next;
+    }
+}
@@ -0,0 +1,66 @@
+package com.finalworks.service;
+
+import com.finalworks.event.FinalWorkChangedEvent;
+import com.finalworks.event.StudentChangedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the public catalogue (work lists and tags), used as the ETag of those endpoints
+ * so an unchanged catalogue is answered with 304 before any DTO is assembled.
+ *
+ * The ETag is a change counter on top of an id drawn when this instance starts. The counter
+ * moves on every committed or relayed FinalWorkChangedEvent and StudentChangedEvent (names
+ * are listed with the works), a new tag, whenever the invalidation bus may have missed
+ * messages, and once start-up runners (sample data, synthetic dataset) have finished. Serving
+ * the ETag is a volatile read; nothing is aggregated on the request path.
+ *
+ * Counters of different instances drift apart (local writes, bursts of changes coalesced into
+ * fewer messages), so equal counters do not mean equal catalogues; the instance id keeps their
+ * ETags apart, as it does across restarts. A client switching instances gets a 200 instead of
+ * a 304, never a stale 304.
+ */
+@Service
+public class CatalogueVersionService {
+
+    private record Version(long changes, String etag) {
+    }
+
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong changes = new AtomicLong();
+    private volatile Version version;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartupFinished() {
+        markChanged();
+    }
+
+    public String getETag() {
+        long seen = changes.get();
+        Version current = version;
+        if (current == null || current.changes() != seen) {
+            current = new Version(seen, "W/\"" + instanceId + "-" + Long.toString(seen, 36) + "\"");
+            version = current;
+        }
+        return current.etag();
+    }
+
+    public void markChanged() {
+        changes.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFinalWorkChanged(FinalWorkChangedEvent event) {
+        markChanged();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        markChanged();
+    }
+}
@@ -0,0 +1,504 @@
+package com.finalworks.service;
+
+import com.finalworks.dto.StoredFileDTO;
+import com.finalworks.event.FinalWorkChangedEvent;
+import com.finalworks.model.ExtractionJob;
+import com.finalworks.model.FileExtract;
+import com.finalworks.model.StoredFile;
+import com.finalworks.repository.ExtractionJobRepository;
+import com.finalworks.repository.FileExtractRepository;
+import com.finalworks.repository.FinalWorkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Extracts text and a first-page thumbnail from uploaded PDFs in the background and feeds
+ * the text to the search index.
+ *
+ * Creating or updating a work that points at a stored PDF queues an ExtractionJob in the
+ * same transaction; request threads do nothing else. A single dispatcher thread claims jobs
+ * from the table only while the bounded worker pool has room, so a backlog waits in the
+ * database rather than in memory. Failed jobs are retried with exponential backoff up to
+ * max-attempts; claimed jobs carry a lease, so work lost with a crashed instance is picked
+ * up again once the lease runs out. Parsing a document runs on a separate thread with a
+ * deadline (timeout), so a pathological PDF fails its attempt instead of holding the worker
+ * and the lease. There is one parser thread per worker; a parser past its deadline is asked
+ * to stop at the next page but may not (the loader and renderer do not check), so it keeps
+ * its slot until it ends and the dispatcher claims that many jobs fewer meanwhile
+ * (finalworks.extraction.abandoned-parsers). Each stage is timed (finalworks.extraction.stage).
+ */
+@Service
+public class DocumentExtractionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentExtractionService.class);
+
+    private static final String STAGE_METRIC = "finalworks.extraction.stage";
+    private static final String JOBS_METRIC = "finalworks.extraction.jobs";
+    private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    private static final List<ExtractionJob.Status> OPEN = List.of(ExtractionJob.Status.PENDING, ExtractionJob.Status.RUNNING);
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int PARSE_QUEUED = 0;
+    private static final int PARSE_RUNNING = 1;
+    private static final int PARSE_DONE = 2;
+    private static final int PARSE_ABANDONED = 3;
+
+    private final ExtractionJobRepository extractionJobRepository;
+    private final FileExtractRepository fileExtractRepository;
+    private final FinalWorkRepository finalWorkRepository;
+    private final FileStorageService fileStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private final int workerCount;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration lease;
+    private final Duration pollInterval;
+    private final int maxTextLength;
+    private final Duration timeout;
+    private final int thumbnailWidth;
+    private final int thumbnailMaxHeight;
+    private final boolean backfillOnStartup;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Parses still running after their attempt timed out
+    private final AtomicInteger abandonedParsers = new AtomicInteger();
+    private Semaphore parserSlots;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private ThreadPoolExecutor workers;
+    private ExecutorService parsers;
+    private ScheduledExecutorService dispatcher;
+
+    @FunctionalInterface
+    private interface Stage<T> {
+        T run() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Parse<T> {
+        T run(BooleanSupplier abandoned) throws IOException;
+    }
+
+    public DocumentExtractionService(ExtractionJobRepository extractionJobRepository,
+                                     FileExtractRepository fileExtractRepository,
+                                     FinalWorkRepository finalWorkRepository,
+                                     FileStorageService fileStorageService,
+                                     ApplicationEventPublisher eventPublisher,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${finalworks.extraction.workers:2}") int workerCount,
+                                     @Value("${finalworks.extraction.queue-capacity:8}") int queueCapacity,
+                                     @Value("${finalworks.extraction.max-attempts:3}") int maxAttempts,
+                                     @Value("${finalworks.extraction.retry-backoff:30s}") Duration retryBackoff,
+                                     @Value("${finalworks.extraction.lease:10m}") Duration lease,
+                                     @Value("${finalworks.extraction.poll-interval:10s}") Duration pollInterval,
+                                     @Value("${finalworks.extraction.max-text-length:200000}") int maxTextLength,
+                                     @Value("${finalworks.extraction.timeout:2m}") Duration timeout,
+                                     @Value("${finalworks.extraction.thumbnail-width:300}") int thumbnailWidth,
+                                     @Value("${finalworks.extraction.thumbnail-max-height:600}") int thumbnailMaxHeight,
+                                     @Value("${finalworks.extraction.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.extractionJobRepository = extractionJobRepository;
+        this.fileExtractRepository = fileExtractRepository;
+        this.finalWorkRepository = finalWorkRepository;
+        this.fileStorageService = fileStorageService;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.workerCount = workerCount;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.lease = lease;
+        this.pollInterval = pollInterval;
+        this.maxTextLength = maxTextLength;
+        this.timeout = timeout;
+        this.thumbnailWidth = thumbnailWidth;
+        this.thumbnailMaxHeight = thumbnailMaxHeight;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "extraction-" + threadNumber.incrementAndGet()));
+        parserSlots = new Semaphore(workerCount);
+        AtomicInteger parserNumber = new AtomicInteger();
+        parsers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "extraction-parser-" + parserNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "extraction-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("finalworks.extraction.in-flight", inFlight, AtomicInteger::get)
+                .description("Extraction jobs claimed by this instance, running or queued for a worker")
+                .register(meterRegistry);
+        Gauge.builder("finalworks.extraction.abandoned-parsers", abandonedParsers, AtomicInteger::get)
+                .description("Parsers still running after their attempt timed out, each holding a parser thread")
+                .register(meterRegistry);
+        if (timeout.compareTo(lease) >= 0) {
+            logger.warn("finalworks.extraction.timeout ({}) is not shorter than the lease ({}), jobs may run twice", timeout, lease);
+        }
+        logger.info("PDF extraction: {} workers, {} queued jobs at most, {} per document", workerCount, queueCapacity, timeout);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startDispatching() {
+        if (backfillOnStartup) {
+            dispatcher.execute(this::backfill);
+        }
+        dispatcher.scheduleWithFixedDelay(this::dispatch, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        dispatcher.shutdownNow();
+        // Jobs still waiting for a worker go back to the table; running ones resume after their lease
+        for (Runnable queued : workers.shutdownNow()) {
+            if (queued instanceof JobTask task) {
+                try {
+                    extractionJobRepository.release(task.jobId);
+                } catch (RuntimeException e) {
+                    logger.warn("Could not release extraction job {}", task.jobId, e);
+                }
+            }
+        }
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        parsers.shutdownNow();
+    }
+
+    /**
+     * Queues extraction for the work's file when it is a stored PDF not extracted yet.
+     * Runs inside the transaction that created or updated the work.
+     */
+    @EventListener(condition = "!#event.remote and (#event.type.name() == 'CREATED' or #event.type.name() == 'UPDATED')")
+    public void onFinalWorkChanged(FinalWorkChangedEvent event) {
+        finalWorkRepository.findById(event.getFinalWorkId())
+                .flatMap(work -> fileStorageService.sha256FromUrl(work.getFileUrl()))
+                .ifPresent(this::schedule);
+    }
+
+    public void schedule(String sha256) {
+        if (fileExtractRepository.existsById(sha256)
+                || extractionJobRepository.existsBySha256AndStatusIn(sha256, OPEN)
+                || !isPdf(sha256)) {
+            return;
+        }
+        ExtractionJob job = new ExtractionJob();
+        job.setSha256(sha256);
+        job.setStatus(ExtractionJob.Status.PENDING);
+        job.setNextAttemptAt(LocalDateTime.now());
+        extractionJobRepository.save(job);
+        logger.info("Queued extraction of file {}", sha256);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    public Optional<FileExtract> findExtract(String fileUrl) {
+        return fileStorageService.sha256FromUrl(fileUrl).flatMap(fileExtractRepository::findById);
+    }
+
+    private void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> {
+                    wakeUpPending.set(false);
+                    dispatch();
+                });
+            } catch (RuntimeException e) {
+                // Shutting down
+                wakeUpPending.set(false);
+            }
+        }
+    }
+
+    // Only ever runs on the dispatcher thread, so the capacity check cannot race with another claim
+    private void dispatch() {
+        try {
+            // No job could parse while every parser thread is held by an abandoned parse
+            int usableParsers = workerCount - abandonedParsers.get();
+            int free = usableParsers > 0 ? usableParsers + queueCapacity - inFlight.get() : 0;
+            while (free > 0) {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> candidates = extractionJobRepository.findClaimableIds(now, PageRequest.of(0, free));
+                int claimed = 0;
+                for (Long id : candidates) {
+                    if (extractionJobRepository.claim(id, now, now.plus(lease)) == 1) {
+                        inFlight.incrementAndGet();
+                        workers.execute(new JobTask(id));
+                        claimed++;
+                    }
+                }
+                if (claimed == 0) {
+                    return;
+                }
+                free -= claimed;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error dispatching extraction jobs", e);
+        }
+    }
+
+    private final class JobTask implements Runnable {
+        private final Long jobId;
+
+        private JobTask(Long jobId) {
+            this.jobId = jobId;
+        }
+
+        @Override
+        public void run() {
+            try {
+                process(jobId);
+            } catch (RuntimeException e) {
+                // Typically the database being unavailable; the lease brings the job back
+                logger.error("Error running extraction job {}", jobId, e);
+            } finally {
+                inFlight.decrementAndGet();
+                wakeUp();
+            }
+        }
+    }
+
+    private void process(Long jobId) {
+        ExtractionJob job = extractionJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        String sha256 = job.getSha256();
+        long started = System.nanoTime();
+        try {
+            extract(sha256);
+            extractionJobRepository.deleteById(jobId);
+            countJob("done");
+            logger.info("Extracted file {} in {} ms", sha256, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (Exception e) {
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            error = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+            if (job.getAttempts() >= maxAttempts) {
+                extractionJobRepository.fail(jobId, error);
+                countJob("failed");
+                logger.error("Extraction of file {} failed after {} attempts", sha256, job.getAttempts(), e);
+            } else {
+                Duration delay = retryBackoff.multipliedBy(1L << (job.getAttempts() - 1));
+                extractionJobRepository.retryLater(jobId, LocalDateTime.now().plus(delay), error);
+                countJob("retried");
+                logger.warn("Extraction of file {} failed (attempt {} of {}), retrying in {}: {}",
+                        sha256, job.getAttempts(), maxAttempts, delay, error);
+            }
+        }
+    }
+
+    private void extract(String sha256) throws Exception {
+        if (!fileExtractRepository.existsById(sha256)) {
+            StoredFile file = fileStorageService.getFile(sha256);
+            Path path = fileStorageService.locate(sha256);
+            FileExtract extract = withDeadline(abandoned -> parse(sha256, path, file.getFileName(), abandoned));
+            time("store", () -> {
+                try {
+                    return fileExtractRepository.save(extract);
+                } catch (DataIntegrityViolationException e) {
+                    // Stored by a concurrent job for the same file
+                    return null;
+                }
+            });
+        }
+        // Search index, detail cache and other instances all follow the work's change event
+        time("index", () -> {
+            for (Long workId : finalWorkRepository.findIdsByFileSha256(sha256)) {
+                eventPublisher.publishEvent(new FinalWorkChangedEvent(workId, FinalWorkChangedEvent.Type.UPDATED));
+            }
+            return null;
+        });
+    }
+
+    private FileExtract parse(String sha256, Path path, String fileName, BooleanSupplier abandoned) throws IOException {
+        FileExtract extract = new FileExtract();
+        extract.setSha256(sha256);
+        // Parsed objects spill to temp files instead of the heap, whatever the size of the PDF
+        try (PDDocument document = time("load", () -> Loader.loadPDF(path.toFile(), IOUtils.createTempFileOnlyStreamCache()))) {
+            extract.setPageCount(document.getNumberOfPages());
+            extract.setText(time("text", () -> extractText(document, abandoned)));
+            extract.setThumbnailSha256(time("thumbnail", () -> renderThumbnail(document, fileName)));
+        }
+        return extract;
+    }
+
+    // Not interrupted on timeout: an interrupt while PDFBox loads a class from the jar leaves that
+    // class unusable (NoClassDefFoundError) for every later document
+    private <T> T withDeadline(Parse<T> work) throws Exception {
+        if (!parserSlots.tryAcquire()) {
+            throw new RejectedExecutionException("All " + workerCount + " parsers are busy with documents past their deadline");
+        }
+        AtomicInteger state = new AtomicInteger(PARSE_QUEUED);
+        Future<T> future = parsers.submit(() -> {
+            if (!state.compareAndSet(PARSE_QUEUED, PARSE_RUNNING)) {
+                return null;
+            }
+            try {
+                return work.run(() -> state.get() == PARSE_ABANDONED);
+            } finally {
+                parserSlots.release();
+                if (!state.compareAndSet(PARSE_RUNNING, PARSE_DONE)) {
+                    abandonedParsers.decrementAndGet();
+                    logger.info("A parser past its deadline has finished, its thread is free again");
+                    wakeUp();
+                }
+            }
+        });
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (state.compareAndSet(PARSE_QUEUED, PARSE_DONE)) {
+                // Never started, the slot is still ours
+                parserSlots.release();
+            } else {
+                abandonedParsers.incrementAndGet();
+                if (!state.compareAndSet(PARSE_RUNNING, PARSE_ABANDONED)) {
+                    // Finished in the meantime
+                    abandonedParsers.decrementAndGet();
+                }
+            }
+            throw new TimeoutException("Parsing took longer than " + timeout);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private String extractText(PDDocument document, BooleanSupplier abandoned) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper() {
+            @Override
+            protected void startPage(PDPage page) throws IOException {
+                // Past the deadline of withDeadline
+                if (abandoned.getAsBoolean()) {
+                    throw new InterruptedIOException("Text extraction cancelled");
+                }
+                super.startPage(page);
+            }
+        };
+        String text = stripper.getText(document);
+        // PostgreSQL text columns reject NUL characters
+        text = text.replace("\u0000", "").strip();
+        return text.length() > maxTextLength ? text.substring(0, maxTextLength) : text;
+    }
+
+    private String renderThumbnail(PDDocument document, String fileName) throws IOException {
+        if (document.getNumberOfPages() == 0) {
+            return null;
+        }
+        PDPage page = document.getPage(0);
+        PDRectangle box = page.getCropBox();
+        boolean rotated = page.getRotation() % 180 != 0;
+        float width = rotated ? box.getHeight() : box.getWidth();
+        float height = rotated ? box.getWidth() : box.getHeight();
+        if (!(width > 0 && height > 0)) {
+            return null;
+        }
+        // Fit both dimensions, so a page box that is huge in either direction cannot allocate a huge image
+        float scale = Math.min(thumbnailWidth / width, thumbnailMaxHeight / height);
+        BufferedImage image = new PDFRenderer(document).renderImage(0, scale, ImageType.RGB);
+        Path png = fileStorageService.newTempFile();
+        ImageIO.write(image, "png", png.toFile());
+        StoredFileDTO thumbnail = fileStorageService.store(png, fileName.replaceFirst("\\.[^.]*$", "") + "-preview.png", "image/png");
+        return thumbnail.getSha256();
+    }
+
+    private boolean isPdf(String sha256) {
+        Path path = fileStorageService.locate(sha256);
+        try (InputStream in = Files.newInputStream(path)) {
+            return Arrays.equals(in.readNBytes(PDF_MAGIC.length), PDF_MAGIC);
+        } catch (IOException e) {
+            logger.warn("Could not read stored file {}", sha256, e);
+            return false;
+        }
+    }
+
+    private void backfill() {
+        try {
+            List<String> fileUrls = finalWorkRepository.findFileUrlsContaining(FileStorageService.URL_PREFIX);
+            for (String fileUrl : fileUrls) {
+                fileStorageService.sha256FromUrl(fileUrl).ifPresent(this::schedule);
+            }
+            logger.info("Checked {} stored work files for missing extracts", fileUrls.size());
+        } catch (RuntimeException e) {
+            logger.error("Error queueing extraction backfill", e);
+        }
+    }
+
+    private <T> T time(String stage, Stage<T> work) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return work.run();
+        } finally {
+            sample.stop(meterRegistry.timer(STAGE_METRIC, "stage", stage));
+        }
+    }
+
+    private void countJob(String outcome) {
+        Counter.builder(JOBS_METRIC).tag("outcome", outcome).register(meterRegistry).increment();
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -19,6 +20,8 @@ public class EmailService {
     @Value("${spring.mail.from:noreply@finalworks.com}")
     private String fromEmail;
 
+    // SMTP round trips must not hold up the registration request
+    @Async
     public void sendRegistrationConfirmation(String toEmail, String name) {
         if (mailSender == null) {
             logger.warn("JavaMailSender not configured. Email not sent to: {}. " +
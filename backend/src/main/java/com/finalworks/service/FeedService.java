@@ -0,0 +1,322 @@
+package com.finalworks.service;
+
+import com.finalworks.dto.CursorPage;
+import com.finalworks.dto.FinalWorkDTO;
+import com.finalworks.dto.FinalWorkSummary;
+import com.finalworks.event.FinalWorkChangedEvent;
+import com.finalworks.event.StudentChangedEvent;
+import com.finalworks.repository.FinalWorkRepository;
+import com.finalworks.util.PageCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The home-page feeds ("newest" and "top-rated") kept in memory as bounded top-K skip lists of
+ * assembled DTOs, so their first pages are served without touching the database.
+ *
+ * Top-rated ranks by the Bayesian score stored in final_works.rating_score (see
+ * RatingScoreService), so each update is O(log K). Committed changes (local or relayed from
+ * other instances) reload the one work and move it in both feeds; a student change reloads
+ * that student's entries, which carry their name. A periodic rebuild refills the feeds from
+ * the database. Pages beyond what the feed holds fall back to keyset queries over the
+ * (submitted_at, id) and (rating_score, id) indexes.
+ */
+@Service
+public class FeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedService.class);
+
+    private static final String REQUESTS_METRIC = "finalworks.feeds.requests";
+
+    /** Sort key of a feed entry; entries iterate highest key first, ties broken by highest id. */
+    private record FeedKey(long key, long id) implements Comparable<FeedKey> {
+        @Override
+        public int compareTo(FeedKey other) {
+            int byKey = Long.compare(other.key, key);
+            return byKey != 0 ? byKey : Long.compare(other.id, id);
+        }
+    }
+
+    /**
+     * The top entries of one ordering. Holds exactly the first size() works of that ordering,
+     * or every work when complete. Mutated only under the service's update lock; pages read
+     * the skip list without locking.
+     */
+    private static final class Feed {
+        private final ConcurrentSkipListMap<FeedKey, FinalWorkDTO> entries = new ConcurrentSkipListMap<>();
+        private final Map<Long, FeedKey> keys = new HashMap<>();
+        private final int capacity;
+        private volatile boolean complete;
+
+        Feed(int capacity, List<FinalWorkDTO> works, List<FeedKey> workKeys) {
+            this.capacity = capacity;
+            for (int i = 0; i < works.size(); i++) {
+                entries.put(workKeys.get(i), works.get(i));
+                keys.put(works.get(i).getId(), workKeys.get(i));
+            }
+            this.complete = works.size() < capacity;
+        }
+
+        void put(FeedKey key, FinalWorkDTO work) {
+            remove(key.id());
+            // A work ranking below our last entry may be behind works we do not hold
+            if (!complete && (entries.isEmpty() || key.compareTo(entries.lastKey()) > 0)) {
+                return;
+            }
+            entries.put(key, work);
+            keys.put(key.id(), key);
+            if (entries.size() > capacity) {
+                FeedKey last = entries.pollLastEntry().getKey();
+                keys.remove(last.id());
+                complete = false;
+            }
+        }
+
+        void remove(long id) {
+            FeedKey key = keys.remove(id);
+            if (key != null) {
+                entries.remove(key);
+            }
+        }
+
+        /** Up to size + 1 entries after the cursor, or null when the feed cannot answer for sure. */
+        List<Map.Entry<FeedKey, FinalWorkDTO>> page(FeedKey after, int size) {
+            List<Map.Entry<FeedKey, FinalWorkDTO>> page = new ArrayList<>(size + 1);
+            for (Map.Entry<FeedKey, FinalWorkDTO> entry : entries.tailMap(after, false).entrySet()) {
+                page.add(entry);
+                if (page.size() > size) {
+                    return page;
+                }
+            }
+            return complete ? page : null;
+        }
+    }
+
+    private record Feeds(Feed newest, Feed topRated) {
+    }
+
+    private final FinalWorkRepository finalWorkRepository;
+    private final FinalWorkAssembler finalWorkAssembler;
+    private final TransactionTemplate readOnlyTransaction;
+    // Rebuilds read the primary: a lagging replica could undo changes already applied from events
+    private final TransactionTemplate primaryTransaction;
+    private final MeterRegistry meterRegistry;
+    private final int capacity;
+
+    // Serialises feed updates and rebuilds, including the reload of the changed work, so an
+    // older snapshot of a work can never overwrite a newer one
+    private final ReentrantLock updateLock = new ReentrantLock();
+    // Null until the first rebuild, and after a failed update; pages then come from the database
+    private volatile Feeds feeds;
+
+    public FeedService(FinalWorkRepository finalWorkRepository,
+                       FinalWorkAssembler finalWorkAssembler,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${finalworks.feeds.size:1000}") int capacity) {
+        this.finalWorkRepository = finalWorkRepository;
+        this.finalWorkAssembler = finalWorkAssembler;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.capacity = capacity;
+    }
+
+    public CursorPage<FinalWorkDTO> newest(PageCursor after, int size) {
+        Feeds current = feeds;
+        if (current != null) {
+            List<Map.Entry<FeedKey, FinalWorkDTO>> page = current.newest().page(new FeedKey(after.getKey(), after.getId()), size);
+            if (page != null) {
+                countRequest("newest", "memory");
+                return toPage(page, size);
+            }
+        }
+        countRequest("newest", "database");
+        List<FinalWorkDTO> works = readOnlyTransaction.execute(status -> finalWorkAssembler.fromSummaries(
+                finalWorkRepository.findNewestSummaries(after.getKeyAsTime(), after.getId(), PageRequest.of(0, size + 1))));
+        List<Map.Entry<FeedKey, FinalWorkDTO>> page = new ArrayList<>(works.size());
+        works.forEach(work -> page.add(Map.entry(newestKey(work.getId(), work.getSubmittedAt()), work)));
+        return toPage(page, size);
+    }
+
+    public CursorPage<FinalWorkDTO> topRated(PageCursor after, int size) {
+        Feeds current = feeds;
+        if (current != null) {
+            List<Map.Entry<FeedKey, FinalWorkDTO>> page = current.topRated().page(new FeedKey(after.getKey(), after.getId()), size);
+            if (page != null) {
+                countRequest("top-rated", "memory");
+                return toPage(page, size);
+            }
+        }
+        countRequest("top-rated", "database");
+        List<Map.Entry<FeedKey, FinalWorkDTO>> page = readOnlyTransaction.execute(status -> {
+            List<FinalWorkSummary> rows = finalWorkRepository.findTopRatedSummaries(
+                    after.getKey(), after.getId(), PageRequest.of(0, size + 1));
+            return withKeys(rows, finalWorkAssembler.fromSummaries(rows), false);
+        });
+        return toPage(page, size);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE) // Before CatalogueVersionService, so a new catalogue ETag never labels a stale feed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFinalWorkChanged(FinalWorkChangedEvent event) {
+        Long id = event.getFinalWorkId();
+        updateLock.lock();
+        try {
+            Feeds current = feeds;
+            if (current == null) {
+                return;
+            }
+            reload(current, List.of(id), event.getType() == FinalWorkChangedEvent.Type.DELETED);
+            logger.debug("Feeds updated for final work {} ({})", id, event.getType());
+        } catch (RuntimeException e) {
+            // Serve from the database until the next rebuild rather than from a feed missing a change
+            feeds = null;
+            logger.error("Error updating feeds for final work {}, disabled until the next rebuild", id, e);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        Long studentId = event.getStudentId();
+        updateLock.lock();
+        try {
+            Feeds current = feeds;
+            if (current == null) {
+                return;
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Feed feed : List.of(current.newest(), current.topRated())) {
+                feed.entries.values().forEach(work -> {
+                    if (studentId.equals(work.getStudentId())) {
+                        ids.add(work.getId());
+                    }
+                });
+            }
+            // A deleted student's works are gone too; reload finds nothing and removes them
+            if (!ids.isEmpty()) {
+                reload(current, ids, false);
+            }
+            logger.debug("Feeds updated for {} works of student {} ({})", ids.size(), studentId, event.getType());
+        } catch (RuntimeException e) {
+            feeds = null;
+            logger.error("Error updating feeds for student {}, disabled until the next rebuild", studentId, e);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    // Caller holds the update lock
+    private void reload(Feeds current, Collection<Long> ids, boolean deleted) {
+        List<FinalWorkSummary> rows = deleted ? List.of() : finalWorkRepository.findSummariesByIds(ids);
+        List<FinalWorkDTO> works = finalWorkAssembler.fromSummaries(rows);
+        Set<Long> found = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            FinalWorkSummary row = rows.get(i);
+            found.add(row.getId());
+            current.newest().put(newestKey(row.getId(), row.getSubmittedAt()), works.get(i));
+            current.topRated().put(new FeedKey(row.getRatingScore(), row.getId()), works.get(i));
+        }
+        for (Long id : ids) {
+            if (!found.contains(id)) {
+                current.newest().remove(id);
+                current.topRated().remove(id);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${finalworks.feeds.rebuild-interval:3600000}", initialDelayString = "${finalworks.feeds.rebuild-interval:3600000}")
+    public void rebuild() {
+        updateLock.lock();
+        try {
+            long started = System.nanoTime();
+            Feeds rebuilt = primaryTransaction.execute(status -> {
+                Feed newest = loadFeed(finalWorkRepository.findNewestSummaries(
+                        LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE, PageRequest.of(0, capacity)), true);
+                Feed topRated = loadFeed(finalWorkRepository.findTopRatedSummaries(
+                        Long.MAX_VALUE, Long.MAX_VALUE, PageRequest.of(0, capacity)), false);
+                return new Feeds(newest, topRated);
+            });
+            feeds = rebuilt;
+            logger.info("Rebuilt feeds with {} newest and {} top-rated works in {} ms",
+                    rebuilt.newest().entries.size(), rebuilt.topRated().entries.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.error("Error rebuilding feeds", e);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private Feed loadFeed(List<FinalWorkSummary> rows, boolean newest) {
+        List<FinalWorkDTO> works = finalWorkAssembler.fromSummaries(rows);
+        List<FeedKey> keys = withKeys(rows, works, newest).stream().map(Map.Entry::getKey).toList();
+        return new Feed(capacity, works, keys);
+    }
+
+    private static List<Map.Entry<FeedKey, FinalWorkDTO>> withKeys(List<FinalWorkSummary> rows, List<FinalWorkDTO> works, boolean newest) {
+        List<Map.Entry<FeedKey, FinalWorkDTO>> keyed = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            FinalWorkSummary row = rows.get(i);
+            FeedKey key = newest
+                    ? newestKey(row.getId(), row.getSubmittedAt())
+                    : new FeedKey(row.getRatingScore(), row.getId());
+            keyed.add(Map.entry(key, works.get(i)));
+        }
+        return keyed;
+    }
+
+    private static FeedKey newestKey(Long id, LocalDateTime submittedAt) {
+        return new FeedKey(PageCursor.of(submittedAt, id).getKey(), id);
+    }
+
+    // Entries are fetched with one extra element; its presence means another page exists
+    private static CursorPage<FinalWorkDTO> toPage(List<Map.Entry<FeedKey, FinalWorkDTO>> entries, int size) {
+        List<FinalWorkDTO> items = new ArrayList<>(Math.min(entries.size(), size));
+        for (int i = 0; i < entries.size() && i < size; i++) {
+            items.add(entries.get(i).getValue());
+        }
+        if (entries.size() <= size) {
+            return new CursorPage<>(items, null);
+        }
+        FeedKey last = entries.get(size - 1).getKey();
+        return new CursorPage<>(items, PageCursor.of(last.key(), last.id()).encode());
+    }
+
+    private void countRequest(String feed, String source) {
+        Counter.builder(REQUESTS_METRIC).tag("feed", feed).tag("source", source).register(meterRegistry).increment();
+    }
+}
@@ -0,0 +1,167 @@
+package com.finalworks.service;
+
+import com.finalworks.dto.StoredFileDTO;
+import com.finalworks.exception.ResourceNotFoundException;
+import com.finalworks.model.StoredFile;
+import com.finalworks.repository.StoredFileRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed file store on local disk. A file lives at objects/ab/abcdef... under its
+ * SHA-256, so identical uploads are stored once and a stored file never changes; the hash
+ * doubles as a strong ETag. Files are written to tmp/ first (same filesystem) and moved
+ * into place once hashed.
+ */
+@Service
+public class FileStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    public static final String URL_PREFIX = "/api/files/";
+    private static final Pattern FILE_URL = Pattern.compile("^(?:https?://[^/]+)?" + URL_PREFIX + "([0-9a-f]{64})$");
+    private static final int HASH_BUFFER_SIZE = 1 << 20;
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+    private static final int MAX_CONTENT_TYPE_LENGTH = 100;
+
+    private final StoredFileRepository storedFileRepository;
+    private final Path objectsDir;
+    private final Path tmpDir;
+
+    public FileStorageService(StoredFileRepository storedFileRepository,
+                              @Value("${finalworks.files.storage-dir:data/files}") String storageDir) {
+        this.storedFileRepository = storedFileRepository;
+        this.objectsDir = Paths.get(storageDir, "objects").toAbsolutePath();
+        this.tmpDir = Paths.get(storageDir, "tmp").toAbsolutePath();
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(objectsDir);
+        Files.createDirectories(tmpDir);
+        logger.info("File store at {}", objectsDir.getParent());
+    }
+
+    /** A fresh, not yet existing path next to the store, for writing an upload before {@link #store}. */
+    public Path newTempFile() {
+        return tmpDir.resolve(UUID.randomUUID() + ".tmp");
+    }
+
+    /** Hashes a fully written file and moves it into the store; the file is gone afterwards. */
+    public StoredFileDTO store(Path file, String fileName, String contentType) throws IOException {
+        try {
+            String sha256 = hash(file);
+            long size = Files.size(file);
+            Path target = locate(sha256);
+            if (Files.exists(target)) {
+                logger.info("File {} already stored, dropping duplicate upload", sha256);
+            } else {
+                Files.createDirectories(target.getParent());
+                // Same content under the same name, so a concurrent identical upload winning the race is harmless
+                Files.move(file, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                logger.info("Stored file {} ({} bytes)", sha256, size);
+            }
+            return toDTO(storedFileRepository.findById(sha256)
+                    .orElseGet(() -> insert(sha256, size, fileName, contentType)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public StoredFile getFile(String sha256) {
+        return storedFileRepository.findById(sha256)
+                .orElseThrow(() -> new ResourceNotFoundException("File not found: " + sha256));
+    }
+
+    public Path locate(String sha256) {
+        return objectsDir.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    /** The stored file a FinalWork.fileUrl points at, if it is one of ours rather than an external link. */
+    public Optional<String> sha256FromUrl(String fileUrl) {
+        if (fileUrl == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = FILE_URL.matcher(fileUrl.trim());
+        return matcher.matches() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+
+    public String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public StoredFileDTO toDTO(StoredFile file) {
+        return new StoredFileDTO(file.getSha256(), URL_PREFIX + file.getSha256(), file.getFileName(),
+                file.getContentType(), file.getSize());
+    }
+
+    static String cleanFileName(String fileName) {
+        String name = StringUtils.getFilename(StringUtils.hasText(fileName) ? fileName.replace('\\', '/') : "");
+        name = name == null ? "" : name.replaceAll("[\\p{Cntrl}\"]", "").trim();
+        if (name.isEmpty()) {
+            return "file";
+        }
+        return name.length() > MAX_FILE_NAME_LENGTH ? name.substring(name.length() - MAX_FILE_NAME_LENGTH) : name;
+    }
+
+    static String cleanContentType(String contentType) {
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            String value = type.getType() + "/" + type.getSubtype();
+            return type.isConcrete() && value.length() <= MAX_CONTENT_TYPE_LENGTH ? value : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+
+    private StoredFile insert(String sha256, long size, String fileName, String contentType) {
+        StoredFile file = new StoredFile();
+        file.setSha256(sha256);
+        file.setSize(size);
+        file.setFileName(cleanFileName(fileName));
+        file.setContentType(cleanContentType(contentType));
+        try {
+            return storedFileRepository.save(file);
+        } catch (DataIntegrityViolationException e) {
+            // Inserted concurrently by an identical upload
+            return storedFileRepository.findById(sha256).orElseThrow(() -> e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.finalworks.service;
+
+import com.finalworks.dto.CommentDTO;
+import com.finalworks.dto.FinalWorkDTO;
+import com.finalworks.dto.FinalWorkSummary;
+import com.finalworks.dto.TagDTO;
+import com.finalworks.model.Comment;
+import com.finalworks.model.FinalWork;
+import com.finalworks.model.Student;
+import com.finalworks.repository.FinalWorkRepository;
+import com.finalworks.repository.StudentRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds FinalWorkDTOs for a whole page of works at once.
+ * Students and tags are each loaded with one set-based query; rating aggregates and the
+ * comment count come from the work row itself, so the number of statements does not
+ * depend on page size. Comments themselves are paged separately.
+ * Listings start from {@link FinalWorkSummary} projection rows, which already carry the
+ * student columns, so only the tag query remains.
+ */
+@Component
+public class FinalWorkAssembler {
+
+    private final FinalWorkRepository finalWorkRepository;
+    private final StudentRepository studentRepository;
+
+    public FinalWorkAssembler(FinalWorkRepository finalWorkRepository,
+                              StudentRepository studentRepository) {
+        this.finalWorkRepository = finalWorkRepository;
+        this.studentRepository = studentRepository;
+    }
+
+    public FinalWorkDTO toDTO(FinalWork finalWork) {
+        return toDTOs(List.of(finalWork)).get(0);
+    }
+
+    public List<FinalWorkDTO> toDTOs(List<FinalWork> works) {
+        if (works.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Dedupe while keeping order; join queries may return a work more than once
+        Map<Long, FinalWork> byId = new HashMap<>();
+        List<FinalWork> ordered = new ArrayList<>();
+        for (FinalWork work : works) {
+            if (byId.putIfAbsent(work.getId(), work) == null) {
+                ordered.add(work);
+            }
+        }
+        Set<Long> ids = byId.keySet();
+
+        // Reading the id of a lazy proxy does not initialise it
+        Set<Long> studentIds = ordered.stream()
+                .map(work -> work.getStudent().getId())
+                .collect(Collectors.toSet());
+        Map<Long, Student> students = studentRepository.findAllById(studentIds).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+
+        Map<Long, Set<TagDTO>> tags = loadTags(ids);
+
+        List<FinalWorkDTO> result = new ArrayList<>(ordered.size());
+        for (FinalWork work : ordered) {
+            Student student = students.get(work.getStudent().getId());
+
+            FinalWorkDTO dto = new FinalWorkDTO();
+            dto.setId(work.getId());
+            dto.setTitle(work.getTitle());
+            dto.setDescription(work.getDescription());
+            dto.setFileUrl(work.getFileUrl());
+            dto.setSubmittedAt(work.getSubmittedAt());
+            dto.setStudentId(student.getId());
+            dto.setStudentName(student.getName());
+            dto.setStudentEmail(student.getEmail());
+            dto.setCommentCount(work.getCommentCount());
+            dto.setTags(tags.getOrDefault(work.getId(), new HashSet<>()));
+            dto.setAverageRating(work.getAverageRating());
+            dto.setRatingCount(work.getRatingCount());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    public List<FinalWorkDTO> fromSummaries(List<FinalWorkSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Set<TagDTO>> tags = loadTags(summaries.stream()
+                .map(FinalWorkSummary::getId)
+                .collect(Collectors.toSet()));
+
+        List<FinalWorkDTO> result = new ArrayList<>(summaries.size());
+        for (FinalWorkSummary summary : summaries) {
+            FinalWorkDTO dto = new FinalWorkDTO();
+            dto.setId(summary.getId());
+            dto.setTitle(summary.getTitle());
+            dto.setDescription(summary.getDescription());
+            dto.setFileUrl(summary.getFileUrl());
+            dto.setSubmittedAt(summary.getSubmittedAt());
+            dto.setStudentId(summary.getStudentId());
+            dto.setStudentName(summary.getStudentName());
+            dto.setStudentEmail(summary.getStudentEmail());
+            dto.setCommentCount(summary.getCommentCount());
+            dto.setTags(tags.getOrDefault(summary.getId(), new HashSet<>()));
+            dto.setAverageRating(summary.getRatingCount() > 0
+                    ? (double) summary.getRatingSum() / summary.getRatingCount() : null);
+            dto.setRatingCount(summary.getRatingCount());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    public CommentDTO convertCommentToDTO(Comment comment) {
+        return convertCommentToDTO(comment, comment.getFinalWork().getId());
+    }
+
+    private CommentDTO convertCommentToDTO(Comment comment, Long finalWorkId) {
+        CommentDTO dto = new CommentDTO();
+        dto.setId(comment.getId());
+        dto.setContent(comment.getContent());
+        dto.setCreatedAt(comment.getCreatedAt());
+        dto.setFinalWorkId(finalWorkId);
+        return dto;
+    }
+
+    private Map<Long, Set<TagDTO>> loadTags(Collection<Long> workIds) {
+        Map<Long, Set<TagDTO>> tags = new HashMap<>();
+        for (Object[] row : finalWorkRepository.findTagRowsByWorkIds(workIds)) {
+            tags.computeIfAbsent((Long) row[0], key -> new LinkedHashSet<>())
+                    .add(new TagDTO((Long) row[1], (String) row[2]));
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,109 @@
+package com.finalworks.service;
+
+import com.finalworks.dto.FinalWorkDTO;
+import com.finalworks.event.FinalWorkChangedEvent;
+import com.finalworks.event.StudentChangedEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of assembled FinalWorkDTOs for the detail endpoint.
+ * Caffeine evicts by size (W-TinyLFU) and by age; every committed change to a work,
+ * its comments or its ratings evicts that work's entry. Student changes (rare) drop
+ * everything, since entries carry the author's name and email.
+ *
+ * Entries are futures: the map only ever installs an incomplete future, and the database
+ * load runs afterwards on the calling thread. Loading inside Caffeine's compute would hold
+ * a ConcurrentHashMap bin lock (a monitor) across JDBC and pin virtual threads to their carrier.
+ */
+@Component
+public class FinalWorkDetailCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(FinalWorkDetailCache.class);
+
+    private final AsyncCache<Long, FinalWorkDTO> cache;
+
+    public FinalWorkDetailCache(@Value("${finalworks.cache.detail.max-size:10000}") long maxSize,
+                                @Value("${finalworks.cache.detail.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        logger.info("Final work detail cache: max {} entries, ttl {}", maxSize, ttl);
+    }
+
+    public FinalWorkDTO get(Long id, Function<Long, FinalWorkDTO> loader) {
+        CompletableFuture<FinalWorkDTO> pending = new CompletableFuture<>();
+        CompletableFuture<FinalWorkDTO> entry = cache.get(id, (key, executor) -> pending);
+        if (entry == pending) {
+            // We installed the entry, so we load it; failed futures are dropped by the cache
+            try {
+                pending.complete(loader.apply(id));
+            } catch (RuntimeException | Error e) {
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void evict(Long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public void evictAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFinalWorkChanged(FinalWorkChangedEvent event) {
+        evict(event.getFinalWorkId());
+        logger.debug("Evicted final work {} from detail cache ({})", event.getFinalWorkId(), event.getType());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        evictAll();
+        logger.debug("Evicted detail cache after student {} changed ({})", event.getStudentId(), event.getType());
+    }
+
+    public Cache<Long, FinalWorkDTO> getNativeCache() {
+        return cache.synchronous();
+    }
+
+    public Map<String, Object> stats() {
+        Cache<Long, FinalWorkDTO> view = cache.synchronous();
+        CacheStats stats = view.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", view.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("loadFailures", stats.loadFailureCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+}
@@ -1,8 +1,14 @@
 package com.finalworks.service;
 
+import com.finalworks.config.ReadWriteRoutingDataSource;
 import com.finalworks.dto.CommentDTO;
+import com.finalworks.dto.CursorPage;
+import com.finalworks.dto.FacetedCursorPage;
 import com.finalworks.dto.FinalWorkDTO;
+import com.finalworks.dto.FinalWorkSummary;
 import com.finalworks.dto.TagDTO;
+import com.finalworks.event.FinalWorkChangedEvent;
+import com.finalworks.exception.BadRequestException;
 import com.finalworks.exception.ResourceNotFoundException;
 import com.finalworks.model.Comment;
 import com.finalworks.model.FinalWork;
@@ -10,27 +16,39 @@ import com.finalworks.model.Student;
 import com.finalworks.model.Tag;
 import com.finalworks.repository.CommentRepository;
 import com.finalworks.repository.FinalWorkRepository;
-import com.finalworks.repository.RatingRepository;
 import com.finalworks.repository.StudentRepository;
-import com.finalworks.service.TagService;
+import com.finalworks.util.PageCursor;
+import io.micrometer.core.annotation.Timed;
+import org.roaringbitmap.RoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "finalworks.service", histogram = true)
 public class FinalWorkService {
 
     private static final Logger logger = LoggerFactory.getLogger(FinalWorkService.class);
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private FinalWorkRepository finalWorkRepository;
 
@@ -44,68 +62,139 @@ public class FinalWorkService {
     private TagService tagService;
 
     @Autowired
-    private RatingRepository ratingRepository;
+    private FinalWorkAssembler finalWorkAssembler;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private TagIndexService tagIndexService;
 
-    public List<FinalWorkDTO> getAllFinalWorks() {
+    @Autowired
+    private FinalWorkDetailCache finalWorkDetailCache;
+
+    @Autowired
+    private DocumentExtractionService documentExtractionService;
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private RatingScoreService ratingScoreService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Feed pages come from memory when possible; FeedService opens a transaction only for database fallbacks
+    public CursorPage<FinalWorkDTO> getAllFinalWorks(String cursor, int limit) {
         logger.debug("Fetching all final works");
         try {
-            List<FinalWorkDTO> works = finalWorkRepository.findAllByOrderBySubmittedAtDesc().stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
-            logger.info("Successfully fetched {} final works", works.size());
-            return works;
+            PageCursor after = PageCursor.decode(cursor);
+            int size = pageSize(limit);
+            CursorPage<FinalWorkDTO> page = feedService.newest(after, size);
+            logger.info("Successfully fetched {} final works", page.getItems().size());
+            return page;
+        } catch (BadRequestException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error fetching all final works", e);
             throw e;
         }
     }
 
-    public List<FinalWorkDTO> getNewest() {
+    public CursorPage<FinalWorkDTO> getNewest(String cursor, int limit) {
         logger.debug("Fetching newest final works");
-        List<FinalWorkDTO> works = finalWorkRepository.findNewest().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        logger.info("Fetched {} newest works", works.size());
-        return works;
+        PageCursor after = PageCursor.decode(cursor);
+        int size = pageSize(limit);
+        CursorPage<FinalWorkDTO> page = feedService.newest(after, size);
+        logger.info("Fetched {} newest works", page.getItems().size());
+        return page;
     }
 
-    public List<FinalWorkDTO> getTopRated() {
+    public CursorPage<FinalWorkDTO> getTopRated(String cursor, int limit) {
         logger.debug("Fetching top-rated final works");
-        List<FinalWorkDTO> works = finalWorkRepository.findTopRated().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        logger.info("Fetched {} top-rated works", works.size());
-        return works;
+        PageCursor after = PageCursor.decode(cursor);
+        int size = pageSize(limit);
+        CursorPage<FinalWorkDTO> page = feedService.topRated(after, size);
+        logger.info("Fetched {} top-rated works", page.getItems().size());
+        return page;
     }
 
-    public List<FinalWorkDTO> searchByQuery(String query) {
+    @Transactional(readOnly = true)
+    public CursorPage<FinalWorkDTO> searchByQuery(String query, String cursor, int limit) {
         logger.debug("Searching works with query: {}", query);
-        List<FinalWorkDTO> works = finalWorkRepository.findByTitleOrDescriptionContainingIgnoreCase(query).stream()
-                .map(this::convertToDTO)
+        // Relevance order is not a stable key, so the search cursor carries the rank offset
+        long offset = cursor == null || cursor.isBlank() ? 0 : PageCursor.decode(cursor).getKey();
+        if (offset < 0 || offset > SearchIndexService.MAX_OFFSET) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+        int size = pageSize(limit);
+        List<SearchIndexService.SearchHit> hits = searchIndexService.search(query, (int) offset, size + 1);
+        List<SearchIndexService.SearchHit> pageHits = hits.subList(0, Math.min(hits.size(), size));
+
+        Map<Long, FinalWorkSummary> found = finalWorkRepository.findSummariesByIds(pageHits.stream()
+                        .map(SearchIndexService.SearchHit::getFinalWorkId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(FinalWorkSummary::getId, Function.identity()));
+        // Keep index rank order; skip hits whose work was deleted since it was indexed
+        List<FinalWorkSummary> ranked = pageHits.stream()
+                .map(hit -> found.get(hit.getFinalWorkId()))
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        Map<Long, String> snippets = new HashMap<>();
+        pageHits.forEach(hit -> {
+            if (hit.getSnippet() != null) {
+                snippets.put(hit.getFinalWorkId(), hit.getSnippet());
+            }
+        });
+
+        List<FinalWorkDTO> works = finalWorkAssembler.fromSummaries(ranked);
+        works.forEach(dto -> dto.setSnippet(snippets.get(dto.getId())));
+        // Results end at MAX_OFFSET; narrower queries find the rest
+        String nextCursor = hits.size() > size && offset + size <= SearchIndexService.MAX_OFFSET
+                ? PageCursor.of(offset + size, 0L).encode() : null;
         logger.info("Found {} works matching query: {}", works.size(), query);
-        return works;
+        return new CursorPage<>(works, nextCursor);
     }
 
-    public List<FinalWorkDTO> filterByTags(List<String> tagNames) {
-        logger.debug("Filtering works by tags: {}", tagNames);
-        List<FinalWorkDTO> works = finalWorkRepository.findByTagNames(tagNames).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        logger.info("Found {} works with tags: {}", works.size(), tagNames);
-        return works;
+    @Transactional(readOnly = true)
+    public FacetedCursorPage<FinalWorkDTO> filterByTags(List<String> tagNames, TagIndexService.Mode mode, String cursor, int limit) {
+        logger.debug("Filtering works by tags: {} ({})", tagNames, mode);
+        PageCursor after = PageCursor.decode(cursor);
+        int size = pageSize(limit);
+        RoaringBitmap matches = tagIndexService.match(tagNames, mode);
+        List<Long> ids = tagIndexService.pageDescending(matches, after.getId(), size + 1);
+        List<Long> pageIds = ids.subList(0, Math.min(ids.size(), size));
+
+        // Only the requested page is loaded from the database, newest (highest id) first
+        List<FinalWorkSummary> works = new ArrayList<>(finalWorkRepository.findSummariesByIds(pageIds));
+        works.sort(Comparator.comparing(FinalWorkSummary::getId).reversed());
+        List<FinalWorkDTO> items = finalWorkAssembler.fromSummaries(works);
+        String nextCursor = ids.size() > size ? PageCursor.of(pageIds.get(size - 1), pageIds.get(size - 1)).encode() : null;
+        logger.info("Found {} works with tags: {}", matches.getLongCardinality(), tagNames);
+        return new FacetedCursorPage<>(items, nextCursor, matches.getLongCardinality(), tagIndexService.facetCounts(matches));
     }
 
     public FinalWorkDTO getFinalWorkById(Long id) {
         logger.debug("Fetching final work with id: {}", id);
         try {
-            FinalWork finalWork = finalWorkRepository.findByIdWithTags(id)
-                    .orElseThrow(() -> {
-                        logger.warn("Final work not found with id: {}", id);
-                        return new ResourceNotFoundException("Final work not found with id: " + id);
-                    });
-            logger.debug("Successfully fetched final work with id: {}", id);
-            return convertToDTO(finalWork);
+            // The entry is only evicted by the next change, so it must not be filled from a lagging replica
+            return finalWorkDetailCache.get(id, key -> ReadWriteRoutingDataSource.onPrimary(() -> {
+                FinalWork finalWork = finalWorkRepository.findByIdWithTags(key)
+                        .orElseThrow(() -> {
+                            logger.warn("Final work not found with id: {}", key);
+                            return new ResourceNotFoundException("Final work not found with id: " + key);
+                        });
+                logger.debug("Successfully fetched final work with id: {}", key);
+                FinalWorkDTO dto = finalWorkAssembler.toDTO(finalWork);
+                documentExtractionService.findExtract(finalWork.getFileUrl()).ifPresent(extract -> {
+                    dto.setPageCount(extract.getPageCount());
+                    if (extract.getThumbnailSha256() != null) {
+                        dto.setThumbnailUrl(FileStorageService.URL_PREFIX + extract.getThumbnailSha256());
+                    }
+                });
+                return dto;
+            }));
         } catch (ResourceNotFoundException e) {
             throw e;
         } catch (Exception e) {
@@ -126,18 +215,20 @@ public class FinalWorkService {
             finalWork.setDescription(finalWorkDTO.getDescription() != null ? finalWorkDTO.getDescription().trim() : null);
             finalWork.setFileUrl(finalWorkDTO.getFileUrl().trim());
             finalWork.setStudent(student);
+            finalWork.setRatingScore(ratingScoreService.score(0, 0));
 
             // Handle tags if provided
             if (finalWorkDTO.getTags() != null) {
-                Set<Tag> tags = finalWorkDTO.getTags().stream()
-                        .map(tagDTO -> tagService.findOrCreateTag(tagDTO.getName()))
-                        .collect(Collectors.toSet());
+                Set<Tag> tags = tagService.resolveTags(finalWorkDTO.getTags().stream()
+                        .map(TagDTO::getName)
+                        .collect(Collectors.toList()));
                 finalWork.setTags(tags);
             }
 
             FinalWork saved = finalWorkRepository.save(finalWork);
+            eventPublisher.publishEvent(new FinalWorkChangedEvent(saved.getId(), FinalWorkChangedEvent.Type.CREATED));
             logger.info("Successfully created final work with id: {}", saved.getId());
-            return convertToDTO(saved);
+            return finalWorkAssembler.toDTO(saved);
         } catch (ResourceNotFoundException e) {
             throw e;
         } catch (Exception e) {
@@ -162,15 +253,16 @@ public class FinalWorkService {
 
             // Handle tags if provided
             if (finalWorkDTO.getTags() != null) {
-                Set<Tag> tags = finalWorkDTO.getTags().stream()
-                        .map(tagDTO -> tagService.findOrCreateTag(tagDTO.getName()))
-                        .collect(Collectors.toSet());
+                Set<Tag> tags = tagService.resolveTags(finalWorkDTO.getTags().stream()
+                        .map(TagDTO::getName)
+                        .collect(Collectors.toList()));
                 existing.setTags(tags);
             }
 
             FinalWork saved = finalWorkRepository.save(existing);
+            eventPublisher.publishEvent(new FinalWorkChangedEvent(saved.getId(), FinalWorkChangedEvent.Type.UPDATED));
             logger.info("Successfully updated final work with id: {}", saved.getId());
-            return convertToDTO(saved);
+            return finalWorkAssembler.toDTO(saved);
         } catch (OptimisticLockingFailureException e) {
             logger.warn("Optimistic lock exception when updating final work with id: {}", id, e);
             throw new ResourceNotFoundException("Final work was modified by another user. Please refresh and try again.");
@@ -193,6 +285,7 @@ public class FinalWorkService {
                     });
 
             finalWorkRepository.delete(finalWork);
+            eventPublisher.publishEvent(new FinalWorkChangedEvent(id, FinalWorkChangedEvent.Type.DELETED));
             logger.info("Successfully deleted final work with id: {}", id);
         } catch (OptimisticLockingFailureException e) {
             logger.warn("Optimistic lock exception when deleting final work with id: {}", id, e);
@@ -205,14 +298,27 @@ public class FinalWorkService {
         }
     }
 
-    public List<CommentDTO> getCommentsByFinalWorkId(Long id) {
+    @Transactional(readOnly = true)
+    public CursorPage<CommentDTO> getCommentsByFinalWorkId(Long id, String after, int limit) {
         logger.debug("Fetching comments for final work with id: {}", id);
         try {
-            List<CommentDTO> comments = commentRepository.findByFinalWorkIdOrderByCreatedAtAsc(id).stream()
-                    .map(this::convertCommentToDTO)
+            int size = pageSize(limit);
+            PageRequest pageRequest = PageRequest.of(0, size + 1);
+            List<Comment> rows;
+            if (after == null || after.isBlank()) {
+                rows = commentRepository.findPageByFinalWorkId(id, pageRequest);
+            } else {
+                PageCursor cursor = PageCursor.decode(after);
+                rows = commentRepository.findByFinalWorkIdAfter(id, cursor.getKeyAsTime(), cursor.getId(), pageRequest);
+            }
+            List<CommentDTO> comments = rows.stream()
+                    .map(finalWorkAssembler::convertCommentToDTO)
                     .collect(Collectors.toList());
-            logger.debug("Successfully fetched {} comments for final work with id: {}", comments.size(), id);
-            return comments;
+            CursorPage<CommentDTO> page = toPage(comments, size, last -> PageCursor.of(last.getCreatedAt(), last.getId()));
+            logger.debug("Successfully fetched {} comments for final work with id: {}", page.getItems().size(), id);
+            return page;
+        } catch (BadRequestException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error fetching comments for final work with id: {}", id, e);
             throw e;
@@ -237,8 +343,10 @@ public class FinalWorkService {
             comment.setFinalWork(finalWork);
 
             Comment saved = commentRepository.save(comment);
+            finalWorkRepository.adjustCommentCount(finalWorkId, 1);
+            eventPublisher.publishEvent(new FinalWorkChangedEvent(finalWorkId, FinalWorkChangedEvent.Type.COMMENTS_CHANGED));
             logger.info("Successfully added comment with id: {} to final work with id: {}", saved.getId(), finalWorkId);
-            return convertCommentToDTO(saved);
+            return finalWorkAssembler.convertCommentToDTO(saved);
         } catch (ResourceNotFoundException e) {
             throw e;
         } catch (Exception e) {
@@ -251,11 +359,15 @@ public class FinalWorkService {
     public void deleteComment(Long commentId) {
         logger.info("Deleting comment with id: {}", commentId);
         try {
-            if (!commentRepository.existsById(commentId)) {
-                logger.warn("Comment not found with id: {}", commentId);
-                throw new ResourceNotFoundException("Comment not found with id: " + commentId);
-            }
-            commentRepository.deleteById(commentId);
+            Comment comment = commentRepository.findById(commentId)
+                    .orElseThrow(() -> {
+                        logger.warn("Comment not found with id: {}", commentId);
+                        return new ResourceNotFoundException("Comment not found with id: " + commentId);
+                    });
+            Long finalWorkId = comment.getFinalWork().getId();
+            commentRepository.delete(comment);
+            finalWorkRepository.adjustCommentCount(finalWorkId, -1);
+            eventPublisher.publishEvent(new FinalWorkChangedEvent(finalWorkId, FinalWorkChangedEvent.Type.COMMENTS_CHANGED));
             logger.info("Successfully deleted comment with id: {}", commentId);
         } catch (ResourceNotFoundException e) {
             throw e;
@@ -265,41 +377,19 @@ public class FinalWorkService {
         }
     }
 
-    private FinalWorkDTO convertToDTO(FinalWork finalWork) {
-        FinalWorkDTO dto = new FinalWorkDTO();
-        dto.setId(finalWork.getId());
-        dto.setTitle(finalWork.getTitle());
-        dto.setDescription(finalWork.getDescription());
-        dto.setFileUrl(finalWork.getFileUrl());
-        dto.setSubmittedAt(finalWork.getSubmittedAt());
-        dto.setStudentId(finalWork.getStudent().getId());
-        dto.setStudentName(finalWork.getStudent().getName());
-        dto.setStudentEmail(finalWork.getStudent().getEmail());
-        dto.setComments(finalWork.getComments().stream()
-                .map(this::convertCommentToDTO)
-                .collect(Collectors.toList()));
-        dto.setTags(finalWork.getTags().stream()
-                .map(this::convertTagToDTO)
-                .collect(Collectors.toSet()));
-        dto.setAverageRating(ratingRepository.getAverageRatingForWork(finalWork));
-        dto.setRatingCount(ratingRepository.getRatingCountForWork(finalWork));
-        return dto;
-    }
-
-    private TagDTO convertTagToDTO(Tag tag) {
-        TagDTO dto = new TagDTO();
-        dto.setId(tag.getId());
-        dto.setName(tag.getName());
-        return dto;
+    private int pageSize(int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("Limit must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
 
-    private CommentDTO convertCommentToDTO(Comment comment) {
-        CommentDTO dto = new CommentDTO();
-        dto.setId(comment.getId());
-        dto.setContent(comment.getContent());
-        dto.setCreatedAt(comment.getCreatedAt());
-        dto.setFinalWorkId(comment.getFinalWork().getId());
-        return dto;
+    // Rows are fetched with one extra element; its presence means another page exists
+    private <T> CursorPage<T> toPage(List<T> rows, int size, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(new ArrayList<>(items), cursorOf.apply(items.get(size - 1)).encode());
     }
 }
-
@@ -0,0 +1,61 @@
+package com.finalworks.service;
+
+import com.finalworks.dto.InteractionDTO;
+import com.finalworks.model.Student;
+import com.finalworks.repository.BookmarkRepository;
+import com.finalworks.repository.RatingRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The current user's rating and bookmark state for a page of works, so a list can render
+ * it with one request instead of a lookup per card.
+ */
+@Service
+@Timed(value = "finalworks.service", histogram = true)
+public class InteractionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InteractionService.class);
+
+    private final RatingRepository ratingRepository;
+    private final BookmarkRepository bookmarkRepository;
+
+    public InteractionService(RatingRepository ratingRepository, BookmarkRepository bookmarkRepository) {
+        this.ratingRepository = ratingRepository;
+        this.bookmarkRepository = bookmarkRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<InteractionDTO> getInteractions(List<Long> finalWorkIds) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Student student = (Student) authentication.getPrincipal();
+        Set<Long> ids = new LinkedHashSet<>(finalWorkIds);
+
+        Map<Long, Integer> ratings = new HashMap<>();
+        for (Object[] row : ratingRepository.findRatingRows(student.getId(), ids)) {
+            ratings.put((Long) row[0], (Integer) row[1]);
+        }
+        Set<Long> bookmarked = new HashSet<>(bookmarkRepository.findBookmarkedWorkIds(student.getId(), ids));
+
+        List<InteractionDTO> interactions = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            interactions.add(new InteractionDTO(id, ratings.get(id), bookmarked.contains(id)));
+        }
+        logger.debug("Fetched interactions of user {} for {} works ({} rated, {} bookmarked)",
+                student.getId(), ids.size(), ratings.size(), bookmarked.size());
+        return interactions;
+    }
+}
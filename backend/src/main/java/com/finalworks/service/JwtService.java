@@ -1,6 +1,8 @@
 package com.finalworks.service;
 
+import com.finalworks.model.Student;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -19,6 +21,13 @@ public class JwtService {
     private static final String SECRET_KEY = "your-secret-key-should-be-very-long-and-secure";
     private static final long EXPIRATION_TIME = 86400000; // 24 hours in milliseconds
 
+    // The student's row is loaded by this id; name and role are never taken from the token
+    public static final String CLAIM_STUDENT_ID = "sid";
+
+    // The key and the parser are immutable and thread-safe, so build them once
+    private final Key signInKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -29,7 +38,11 @@ public class JwtService {
     }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof Student student) {
+            claims.put(CLAIM_STUDENT_ID, student.getId());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(
@@ -42,7 +55,7 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -51,6 +64,18 @@ public class JwtService {
         return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
     }
 
+    /**
+     * Parses the token once, checking signature and expiry.
+     * Throws {@link io.jsonwebtoken.JwtException} if the token is not valid.
+     */
+    public Claims parseVerified(String token) {
+        return extractAllClaims(token);
+    }
+
+    public long getExpirationTime() {
+        return EXPIRATION_TIME;
+    }
+
     private boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
@@ -60,16 +85,8 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = SECRET_KEY.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
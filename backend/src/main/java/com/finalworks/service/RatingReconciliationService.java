@@ -0,0 +1,76 @@
+package com.finalworks.service;
+
+import com.finalworks.event.FinalWorkChangedEvent;
+import com.finalworks.repository.AdvisoryLockRepository;
+import com.finalworks.repository.FinalWorkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Rebuilds the denormalised rating and comment-count columns on final_works from the
+ * ratings and comments tables. RatingService and FinalWorkService keep them current
+ * incrementally; this only repairs drift
+ * (manual SQL, restored backups, rows that predate the columns, a changed rating prior).
+ *
+ * Runs on one instance at a time (advisory lock) and only touches rows whose stored values
+ * differ; those are locked before they are recomputed, so concurrent increments are not lost,
+ * and each one publishes a FinalWorkChangedEvent for caches, feeds and other instances.
+ */
+@Service
+public class RatingReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingReconciliationService.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final FinalWorkRepository finalWorkRepository;
+    private final AdvisoryLockRepository advisoryLockRepository;
+    private final RatingScoreService ratingScoreService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RatingReconciliationService(FinalWorkRepository finalWorkRepository, AdvisoryLockRepository advisoryLockRepository,
+                                       RatingScoreService ratingScoreService, ApplicationEventPublisher eventPublisher) {
+        this.finalWorkRepository = finalWorkRepository;
+        this.advisoryLockRepository = advisoryLockRepository;
+        this.ratingScoreService = ratingScoreService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(cron = "${finalworks.ratings.reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        if (!advisoryLockRepository.tryLockForTransaction(AdvisoryLockRepository.RATING_RECONCILIATION)) {
+            logger.info("Reconciliation is already running on another instance, skipping");
+            return;
+        }
+        logger.info("Reconciling rating aggregates and comment counts");
+        try {
+            long prior = ratingScoreService.getPrior();
+            long weight = ratingScoreService.getWeight();
+            List<Long> ids = finalWorkRepository.lockDriftedRatingAggregates(prior, weight);
+            for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                List<Long> batch = ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE));
+                finalWorkRepository.rebuildRatingAggregates(batch);
+                finalWorkRepository.rebuildRatingScores(prior, weight, batch);
+            }
+            ids.forEach(id -> eventPublisher.publishEvent(new FinalWorkChangedEvent(id, FinalWorkChangedEvent.Type.RATINGS_CHANGED)));
+            logger.info("Reconciled rating aggregates for {} final works", ids.size());
+
+            ids = finalWorkRepository.lockDriftedCommentCounts();
+            for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                finalWorkRepository.rebuildCommentCounts(ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE)));
+            }
+            ids.forEach(id -> eventPublisher.publishEvent(new FinalWorkChangedEvent(id, FinalWorkChangedEvent.Type.COMMENTS_CHANGED)));
+            logger.info("Reconciled comment counts for {} final works", ids.size());
+        } catch (Exception e) {
+            logger.error("Error reconciling rating aggregates", e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.finalworks.service;
+
+import com.finalworks.repository.FinalWorkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Parameters of the Bayesian score stored in final_works.rating_score, which orders the
+ * top-rated list: a work's ratings are blended with prior-weight virtual ratings at
+ * prior-mean, so one 5-star rating does not outrank fifty 4.8s.
+ *
+ * The prior is configuration rather than the live site mean, so every instance and every
+ * statement computes the same score and the column can carry the (rating_score, id) index.
+ * Rating changes update the score together with the aggregates; works inserted without a
+ * score (score 0: sample data, the synthetic dataset, rows from before the column existed)
+ * are scored at start-up. After changing prior-mean or prior-weight the reconciliation job
+ * rescores the rows.
+ */
+@Service
+public class RatingScoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingScoreService.class);
+
+    private final FinalWorkRepository finalWorkRepository;
+    private final long prior;
+    private final long weight;
+
+    public RatingScoreService(FinalWorkRepository finalWorkRepository,
+                              @Value("${finalworks.feeds.prior-mean:3.0}") double priorMean,
+                              @Value("${finalworks.feeds.prior-weight:5}") long priorWeight) {
+        this.finalWorkRepository = finalWorkRepository;
+        this.prior = Math.round(priorWeight * priorMean * FinalWorkRepository.SCORE_SCALE);
+        this.weight = priorWeight;
+    }
+
+    /** Same integer arithmetic as FinalWorkRepository.BAYESIAN_SCORE. */
+    public long score(long ratingSum, long ratingCount) {
+        return (prior + ratingSum * FinalWorkRepository.SCORE_SCALE) / (weight + ratingCount);
+    }
+
+    public long getPrior() {
+        return prior;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    // Unscored rows are found through the (rating_score, id) index, so this is cheap when there are none
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE) // Before FeedService loads the top-rated feed
+    @Transactional
+    public void scoreUnscoredWorks() {
+        int scored = finalWorkRepository.scoreUnscored(prior, weight);
+        if (scored > 0) {
+            logger.info("Computed the rating score of {} final works", scored);
+        }
+    }
+}
@@ -1,37 +1,60 @@
 package com.finalworks.service;
 
 import com.finalworks.dto.RatingDTO;
+import com.finalworks.event.FinalWorkChangedEvent;
 import com.finalworks.exception.ConflictException;
 import com.finalworks.exception.ResourceNotFoundException;
 import com.finalworks.model.FinalWork;
-import com.finalworks.model.Rating;
 import com.finalworks.model.Student;
 import com.finalworks.repository.FinalWorkRepository;
 import com.finalworks.repository.RatingRepository;
 import com.finalworks.repository.StudentRepository;
+import com.finalworks.repository.UpsertRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Optional;
+
 @Service
+@Timed(value = "finalworks.service", histogram = true)
 public class RatingService {
 
     private static final Logger logger = LoggerFactory.getLogger(RatingService.class);
 
+    // Insert and change can both miss when the rating is removed in between; retried this many times
+    private static final int MAX_UPSERT_ATTEMPTS = 3;
+
     private final RatingRepository ratingRepository;
     private final FinalWorkRepository finalWorkRepository;
     private final StudentRepository studentRepository;
+    private final UpsertRepository upsertRepository;
+    private final RatingScoreService ratingScoreService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public RatingService(RatingRepository ratingRepository, FinalWorkRepository finalWorkRepository, StudentRepository studentRepository) {
+    public RatingService(RatingRepository ratingRepository, FinalWorkRepository finalWorkRepository, StudentRepository studentRepository,
+                         UpsertRepository upsertRepository, RatingScoreService ratingScoreService,
+                         ApplicationEventPublisher eventPublisher) {
         this.ratingRepository = ratingRepository;
         this.finalWorkRepository = finalWorkRepository;
         this.studentRepository = studentRepository;
+        this.upsertRepository = upsertRepository;
+        this.ratingScoreService = ratingScoreService;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Rates a work, or changes the user's existing rating of it. Race-free: the rating is
+     * inserted with a single upsert statement, an existing one is locked before it is changed,
+     * so the work's rating aggregates always move by the real difference.
+     */
     @Transactional
     public RatingDTO rateWork(Long finalWorkId, int rating) {
         logger.info("Rating work {} with {} stars", finalWorkId, rating);
@@ -39,22 +62,36 @@ public class RatingService {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             Student student = (Student) authentication.getPrincipal();
 
-            FinalWork finalWork = finalWorkRepository.findById(finalWorkId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Final work not found with id: " + finalWorkId));
-
-            if (ratingRepository.existsByStudentAndFinalWork(student, finalWork)) {
-                logger.warn("Student {} already rated work {}", student.getId(), finalWorkId);
-                throw new ConflictException("You have already rated this work");
+            for (int attempt = 0; attempt < MAX_UPSERT_ATTEMPTS; attempt++) {
+                Optional<Long> inserted = upsertRepository.insertRatingIfAbsent(student.getId(), finalWorkId, rating);
+                if (inserted.isPresent()) {
+                    adjustRatingAggregates(finalWorkId, rating, 1);
+                    eventPublisher.publishEvent(new FinalWorkChangedEvent(finalWorkId, FinalWorkChangedEvent.Type.RATINGS_CHANGED));
+                    logger.info("Created rating with id: {}", inserted.get());
+                    return new RatingDTO(inserted.get(), student.getId(), finalWorkId, rating);
+                }
+
+                List<Object[]> existing = ratingRepository.lockRating(student.getId(), finalWorkId);
+                if (!existing.isEmpty()) {
+                    Long id = ((Number) existing.get(0)[0]).longValue();
+                    int previous = ((Number) existing.get(0)[1]).intValue();
+                    if (previous != rating) {
+                        ratingRepository.updateRating(id, rating);
+                        adjustRatingAggregates(finalWorkId, rating - previous, 0);
+                        eventPublisher.publishEvent(new FinalWorkChangedEvent(finalWorkId, FinalWorkChangedEvent.Type.RATINGS_CHANGED));
+                    }
+                    logger.info("Changed rating {} from {} to {} stars", id, previous, rating);
+                    return new RatingDTO(id, student.getId(), finalWorkId, rating);
+                }
+
+                // Nothing inserted and nothing to change: either the work does not exist or the
+                // rating was removed between the two statements
+                if (!finalWorkRepository.existsById(finalWorkId)) {
+                    throw new ResourceNotFoundException("Final work not found with id: " + finalWorkId);
+                }
             }
-
-            Rating newRating = new Rating();
-            newRating.setStudent(student);
-            newRating.setFinalWork(finalWork);
-            newRating.setRating(rating);
-
-            Rating saved = ratingRepository.save(newRating);
-            logger.info("Created rating with id: {}", saved.getId());
-            return convertToDTO(saved);
+            logger.warn("Rating of work {} by student {} kept changing, giving up", finalWorkId, student.getId());
+            throw new ConflictException("The rating was changed concurrently. Please try again.");
         } catch (OptimisticLockingFailureException e) {
             logger.warn("Optimistic lock exception when rating work {}", finalWorkId, e);
             throw new ResourceNotFoundException("The work was modified by another user. Please refresh and try again.");
@@ -76,7 +113,11 @@ public class RatingService {
             FinalWork finalWork = finalWorkRepository.findById(finalWorkId)
                     .orElseThrow(() -> new ResourceNotFoundException("Final work not found with id: " + finalWorkId));
 
-            ratingRepository.deleteByStudentAndFinalWork(student, finalWork);
+            ratingRepository.findByStudentAndFinalWork(student, finalWork).ifPresent(existing -> {
+                ratingRepository.delete(existing);
+                adjustRatingAggregates(finalWorkId, -existing.getRating(), -1);
+                eventPublisher.publishEvent(new FinalWorkChangedEvent(finalWorkId, FinalWorkChangedEvent.Type.RATINGS_CHANGED));
+            });
             logger.info("Removed rating for work {}", finalWorkId);
         } catch (ResourceNotFoundException e) {
             throw e;
@@ -86,26 +127,22 @@ public class RatingService {
         }
     }
 
-    public Double getAverageRating(Long finalWorkId) {
-        return ratingRepository.getAverageRatingForWork(
-                finalWorkRepository.findById(finalWorkId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Final work not found with id: " + finalWorkId))
-        );
+    private void adjustRatingAggregates(Long finalWorkId, long sumDelta, long countDelta) {
+        finalWorkRepository.adjustRatingAggregates(finalWorkId, sumDelta, countDelta,
+                ratingScoreService.getPrior(), ratingScoreService.getWeight());
     }
 
-    public Long getRatingCount(Long finalWorkId) {
-        return ratingRepository.getRatingCountForWork(
-                finalWorkRepository.findById(finalWorkId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Final work not found with id: " + finalWorkId))
-        );
+    @Transactional(readOnly = true)
+    public Double getAverageRating(Long finalWorkId) {
+        return finalWorkRepository.findById(finalWorkId)
+                .orElseThrow(() -> new ResourceNotFoundException("Final work not found with id: " + finalWorkId))
+                .getAverageRating();
     }
 
-    private RatingDTO convertToDTO(Rating rating) {
-        RatingDTO dto = new RatingDTO();
-        dto.setId(rating.getId());
-        dto.setStudentId(rating.getStudent().getId());
-        dto.setFinalWorkId(rating.getFinalWork().getId());
-        dto.setRating(rating.getRating());
-        return dto;
+    @Transactional(readOnly = true)
+    public Long getRatingCount(Long finalWorkId) {
+        return finalWorkRepository.findById(finalWorkId)
+                .orElseThrow(() -> new ResourceNotFoundException("Final work not found with id: " + finalWorkId))
+                .getRatingCount();
     }
 }
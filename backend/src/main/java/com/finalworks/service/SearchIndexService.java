@@ -0,0 +1,446 @@
+package com.finalworks.service;
+
+import com.finalworks.config.ReadWriteRoutingDataSource;
+import com.finalworks.dto.FinalWorkDTO;
+import com.finalworks.dto.TagDTO;
+import com.finalworks.event.FinalWorkChangedEvent;
+import com.finalworks.model.FileExtract;
+import com.finalworks.model.FinalWork;
+import com.finalworks.repository.FileExtractRepository;
+import com.finalworks.repository.FinalWorkRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.cz.CzechAnalyzer;
+import org.apache.lucene.analysis.cz.CzechStemFilter;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.en.EnglishPossessiveFilter;
+import org.apache.lucene.analysis.en.PorterStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.search.highlight.SimpleSpanFragmenter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Embedded Lucene index over final works (title, description, tag names, student name and
+ * the text extracted from an uploaded PDF, see {@link DocumentExtractionService}).
+ * Every text field is indexed twice, once with a Czech and once with an English analyser,
+ * both folding diacritics, and queried together with BM25 ranking.
+ * The index lives on local disk and follows committed changes via FinalWorkChangedEvent.
+ * Changes are searchable as soon as they are applied (near-real-time) but only made durable
+ * on a timer and at shutdown; after a crash the index is rebuilt from the database.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    private static final String ID_FIELD = "id";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String TAGS = "tags";
+    private static final String STUDENT = "student";
+    private static final String CONTENT = "content";
+    private static final String[] TEXT_FIELDS = {TITLE, DESCRIPTION, TAGS, STUDENT, CONTENT};
+    private static final String[] LANGUAGES = {"cs", "en"};
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(TITLE, 3.0f, TAGS, 2.0f, STUDENT, 1.5f, DESCRIPTION, 1.0f, CONTENT, 0.5f);
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int SNIPPET_LENGTH = 160;
+    private static final String CLEAN_SHUTDOWN = "cleanShutdown";
+
+    /** Deepest rank a search page may start at; each page collects offset + limit hits. */
+    public static final int MAX_OFFSET = 10_000;
+
+    private final FinalWorkRepository finalWorkRepository;
+    private final FinalWorkAssembler finalWorkAssembler;
+    private final FileExtractRepository fileExtractRepository;
+    private final FileStorageService fileStorageService;
+    private final String indexDir;
+    private final boolean rebuildOnStartup;
+
+    // Incremental updates share the read lock; a full rebuild takes the write lock
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private Analyzer analyzer;
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private boolean closedCleanly;
+
+    public SearchIndexService(FinalWorkRepository finalWorkRepository,
+                              FinalWorkAssembler finalWorkAssembler,
+                              FileExtractRepository fileExtractRepository,
+                              FileStorageService fileStorageService,
+                              @Value("${finalworks.search.index-dir:data/search-index}") String indexDir,
+                              @Value("${finalworks.search.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.finalWorkRepository = finalWorkRepository;
+        this.finalWorkAssembler = finalWorkAssembler;
+        this.fileExtractRepository = fileExtractRepository;
+        this.fileStorageService = fileStorageService;
+        this.indexDir = indexDir;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        analyzer = buildAnalyzer();
+        directory = FSDirectory.open(Paths.get(indexDir));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+        closedCleanly = commitData(CLEAN_SHUTDOWN, "false");
+        logger.info("Opened search index at {} with {} documents", indexDir, writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        commitData(CLEAN_SHUTDOWN, "true");
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public static class SearchHit {
+        private final Long finalWorkId;
+        private final float score;
+        private final String snippet;
+
+        public SearchHit(Long finalWorkId, float score, String snippet) {
+            this.finalWorkId = finalWorkId;
+            this.score = score;
+            this.snippet = snippet;
+        }
+
+        public Long getFinalWorkId() {
+            return finalWorkId;
+        }
+
+        public float getScore() {
+            return score;
+        }
+
+        public String getSnippet() {
+            return snippet;
+        }
+    }
+
+    /**
+     * Returns hits ranked by relevance, skipping the first {@code offset} ones.
+     * Snippets are HTML-escaped with matches wrapped in {@code <mark>}.
+     */
+    public List<SearchHit> search(String queryText, int offset, int limit) {
+        if (offset < 0 || offset > MAX_OFFSET || limit < 0) {
+            throw new IllegalArgumentException("Invalid search page: offset " + offset + ", limit " + limit);
+        }
+        if (queryText == null || queryText.isBlank()) {
+            return List.of();
+        }
+        Query query = parseQuery(queryText);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, Math.addExact(offset, limit));
+                List<SearchHit> hits = new ArrayList<>();
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                for (int i = offset; i < scoreDocs.length; i++) {
+                    Document doc = searcher.storedFields().document(scoreDocs[i].doc);
+                    hits.add(new SearchHit(Long.valueOf(doc.get(ID_FIELD)), scoreDocs[i].score, highlight(query, doc)));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            logger.error("Error searching index for query: {}", queryText, e);
+            throw new IllegalStateException("Search index is unavailable", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true, condition = "#event.type.affectsContent()")
+    public void onFinalWorkChanged(FinalWorkChangedEvent event) {
+        Long id = event.getFinalWorkId();
+        rebuildLock.readLock().lock();
+        try {
+            if (event.getType() == FinalWorkChangedEvent.Type.DELETED) {
+                writer.deleteDocuments(new Term(ID_FIELD, id.toString()));
+            } else {
+                // The document stays until the work changes again, so it must not come from a lagging replica
+                Document document = ReadWriteRoutingDataSource.onPrimary(() -> finalWorkRepository.findById(id)
+                        .map(work -> toDocument(finalWorkAssembler.toDTO(work), fileStorageService.sha256FromUrl(work.getFileUrl())
+                                .flatMap(fileExtractRepository::findById)
+                                .map(FileExtract::getText)
+                                .orElse(null)))
+                        .orElse(null));
+                if (document == null) {
+                    writer.deleteDocuments(new Term(ID_FIELD, id.toString()));
+                } else {
+                    writer.updateDocument(new Term(ID_FIELD, id.toString()), document);
+                }
+            }
+            searcherManager.maybeRefresh();
+            logger.debug("Search index updated for final work {} ({})", id, event.getType());
+        } catch (Exception e) {
+            // The database change is already committed; a failed index update must not fail the request
+            logger.error("Error updating search index for final work {}", id, e);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Makes the updates applied since the last commit durable, one fsync for the whole batch.
+     */
+    @Scheduled(fixedDelayString = "${finalworks.search.commit-interval:30000}")
+    public void commit() {
+        if (!writer.hasUncommittedChanges()) {
+            return;
+        }
+        rebuildLock.readLock().lock();
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            logger.error("Error committing search index", e);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sets a commit user data entry and commits, returning whether the previous commit had it set to "true".
+     */
+    private boolean commitData(String key, String value) throws IOException {
+        Map<String, String> previous = new HashMap<>();
+        Iterable<Map.Entry<String, String>> liveCommitData = writer.getLiveCommitData();
+        if (liveCommitData != null) {
+            liveCommitData.forEach(entry -> previous.put(entry.getKey(), entry.getValue()));
+        }
+        writer.setLiveCommitData(Map.of(key, value).entrySet());
+        writer.commit();
+        return "true".equals(previous.get(key));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfStale() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        long indexed = writer.getDocStats().numDocs;
+        long stored = finalWorkRepository.count();
+        if (!closedCleanly) {
+            // Updates since the last timed commit are lost without changing the document count
+            logger.info("Search index was not closed cleanly, rebuilding");
+            rebuild();
+        } else if (indexed != stored) {
+            logger.info("Search index has {} documents but database has {} final works, rebuilding", indexed, stored);
+            rebuild();
+        }
+    }
+
+    /**
+     * Drops the index and re-indexes every final work in keyset-paged batches.
+     */
+    public int rebuild() {
+        logger.info("Rebuilding search index");
+        rebuildLock.writeLock().lock();
+        try {
+            writer.deleteAll();
+            int indexed = 0;
+            LocalDateTime afterTime = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+            Long afterId = Long.MAX_VALUE;
+            List<FinalWork> batch;
+            do {
+                batch = finalWorkRepository.findNewest(afterTime, afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                Map<String, String> contents = extractedTexts(batch);
+                for (FinalWorkDTO dto : finalWorkAssembler.toDTOs(batch)) {
+                    String content = fileStorageService.sha256FromUrl(dto.getFileUrl()).map(contents::get).orElse(null);
+                    writer.addDocument(toDocument(dto, content));
+                    indexed++;
+                }
+                if (!batch.isEmpty()) {
+                    FinalWork last = batch.get(batch.size() - 1);
+                    afterTime = last.getSubmittedAt();
+                    afterId = last.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            writer.commit();
+            searcherManager.maybeRefresh();
+            logger.info("Rebuilt search index with {} final works", indexed);
+            return indexed;
+        } catch (IOException e) {
+            logger.error("Error rebuilding search index", e);
+            throw new IllegalStateException("Search index rebuild failed", e);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private Map<String, String> extractedTexts(List<FinalWork> works) {
+        List<String> sha256s = works.stream()
+                .map(work -> fileStorageService.sha256FromUrl(work.getFileUrl()))
+                .flatMap(Optional::stream)
+                .distinct()
+                .collect(Collectors.toList());
+        if (sha256s.isEmpty()) {
+            return Map.of();
+        }
+        return fileExtractRepository.findAllById(sha256s).stream()
+                .filter(extract -> extract.getText() != null)
+                .collect(Collectors.toMap(FileExtract::getSha256, FileExtract::getText));
+    }
+
+    private Document toDocument(FinalWorkDTO dto, String content) {
+        Map<String, String> values = new HashMap<>();
+        values.put(TITLE, dto.getTitle());
+        values.put(DESCRIPTION, dto.getDescription());
+        values.put(TAGS, dto.getTags() == null ? null : dto.getTags().stream()
+                .map(TagDTO::getName)
+                .collect(Collectors.joining(" ")));
+        values.put(STUDENT, dto.getStudentName());
+        values.put(CONTENT, content);
+
+        Document doc = new Document();
+        doc.add(new StringField(ID_FIELD, dto.getId().toString(), Field.Store.YES));
+        for (String field : TEXT_FIELDS) {
+            String value = values.get(field);
+            if (value == null) {
+                continue;
+            }
+            for (String language : LANGUAGES) {
+                doc.add(new TextField(field + "_" + language, value, Field.Store.NO));
+            }
+        }
+        // Kept only for highlighting
+        doc.add(new StoredField(TITLE, dto.getTitle()));
+        if (dto.getDescription() != null) {
+            doc.add(new StoredField(DESCRIPTION, dto.getDescription()));
+        }
+        return doc;
+    }
+
+    private Query parseQuery(String queryText) {
+        List<String> fields = new ArrayList<>();
+        Map<String, Float> boosts = new HashMap<>();
+        for (String field : TEXT_FIELDS) {
+            for (String language : LANGUAGES) {
+                fields.add(field + "_" + language);
+                boosts.put(field + "_" + language, FIELD_BOOSTS.get(field));
+            }
+        }
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(fields.toArray(new String[0]), analyzer, boosts);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            // User input is treated as plain words, not Lucene query syntax
+            return parser.parse(QueryParser.escape(queryText.trim()));
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid search query: " + queryText);
+        }
+    }
+
+    private String highlight(Query query, Document doc) throws IOException {
+        for (String field : new String[]{DESCRIPTION, TITLE}) {
+            String text = doc.get(field);
+            if (text == null) {
+                continue;
+            }
+            for (String language : LANGUAGES) {
+                String indexedField = field + "_" + language;
+                QueryScorer scorer = new QueryScorer(query, indexedField);
+                Highlighter highlighter = new Highlighter(
+                        new SimpleHTMLFormatter("<mark>", "</mark>"), new SimpleHTMLEncoder(), scorer);
+                highlighter.setTextFragmenter(new SimpleSpanFragmenter(scorer, SNIPPET_LENGTH));
+                try {
+                    String fragment = highlighter.getBestFragment(analyzer, indexedField, text);
+                    if (fragment != null) {
+                        return fragment;
+                    }
+                } catch (InvalidTokenOffsetsException e) {
+                    logger.debug("Could not highlight field {}", indexedField, e);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Analyzer buildAnalyzer() {
+        Analyzer czech = new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer source = new StandardTokenizer();
+                TokenStream result = new LowerCaseFilter(source);
+                result = new StopFilter(result, CzechAnalyzer.getDefaultStopSet());
+                result = new CzechStemFilter(result);
+                result = new ASCIIFoldingFilter(result);
+                return new TokenStreamComponents(source, result);
+            }
+        };
+        Analyzer english = new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer source = new StandardTokenizer();
+                TokenStream result = new EnglishPossessiveFilter(source);
+                result = new LowerCaseFilter(result);
+                result = new StopFilter(result, EnglishAnalyzer.ENGLISH_STOP_WORDS_SET);
+                result = new PorterStemFilter(result);
+                result = new ASCIIFoldingFilter(result);
+                return new TokenStreamComponents(source, result);
+            }
+        };
+        Map<String, Analyzer> perField = new HashMap<>();
+        for (String field : TEXT_FIELDS) {
+            perField.put(field + "_cs", czech);
+            perField.put(field + "_en", english);
+        }
+        return new PerFieldAnalyzerWrapper(new StandardAnalyzer(), perField);
+    }
+}
@@ -0,0 +1,430 @@
+package com.finalworks.service;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Bulk-loads a large synthetic dataset for load testing (finalworks.dataset.generate=true).
+ *
+ * Tag popularity is Zipfian; comments and ratings per work are heavy-tailed (Pareto), so a
+ * few works carry most of the activity. Text is a Czech/English mix. Rows are written with
+ * COPY on PostgreSQL and JDBC batches elsewhere, never through JPA. Generated students are
+ * loadtest{n}@example.com with password finalworks.dataset.password. Runs once: if the first
+ * generated student exists, nothing is loaded.
+ */
+@Component
+@Order(100)
+@ConditionalOnProperty(name = "finalworks.dataset.generate", havingValue = "true")
+public class SyntheticDatasetGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDatasetGenerator.class);
+
+    private static final int BATCH_SIZE = 5000;
+    // Works are flushed in chunks, always before the rows that reference them
+    private static final int WORK_CHUNK = 1000;
+
+    private static final String[] CZECH_WORDS = {
+            "moderní", "webové", "aplikace", "analýza", "návrh", "implementace", "systému", "pro", "správu",
+            "dat", "využití", "strojového", "učení", "v", "praxi", "bezpečnost", "počítačových", "sítí",
+            "optimalizace", "výkonu", "databáze", "uživatelské", "rozhraní", "mobilní", "řešení", "vývoj",
+            "informačního", "testování", "software", "škálovatelnost", "cloudové", "služby", "zpracování",
+            "přirozeného", "jazyka", "vizualizace", "měření", "energetické", "účinnosti", "řízení", "projektu"
+    };
+
+    private static final String[] ENGLISH_WORDS = {
+            "modern", "web", "application", "analysis", "design", "implementation", "of", "a", "system", "for",
+            "data", "management", "machine", "learning", "in", "practice", "network", "security", "performance",
+            "optimization", "database", "user", "interface", "mobile", "solution", "development", "testing",
+            "scalable", "cloud", "services", "processing", "natural", "language", "visualization", "energy",
+            "efficiency", "distributed", "real-time", "evaluation", "framework"
+    };
+
+    private static final String[] TAG_STEMS = {
+            "web", "mobile", "ai", "ml", "security", "databases", "networking", "cloud", "devops", "frontend",
+            "backend", "iot", "robotics", "nlp", "vision", "games", "embedded", "blockchain", "ux", "testing",
+            "energetika", "ekonomie", "biologie", "chemie", "fyzika", "matematika", "statistika", "pedagogika",
+            "psychologie", "historie", "architektura", "design", "marketing", "logistika", "medicina"
+    };
+
+    private final DataSource dataSource;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${finalworks.dataset.seed:42}")
+    private long seed;
+
+    @Value("${finalworks.dataset.students:10000}")
+    private int studentCount;
+
+    @Value("${finalworks.dataset.tags:500}")
+    private int tagCount;
+
+    @Value("${finalworks.dataset.works:100000}")
+    private int workCount;
+
+    @Value("${finalworks.dataset.comments:1000000}")
+    private long commentCount;
+
+    @Value("${finalworks.dataset.ratings:5000000}")
+    private long ratingCount;
+
+    @Value("${finalworks.dataset.password:LoadTest123}")
+    private String password;
+
+    public SyntheticDatasetGenerator(DataSource dataSource, PasswordEncoder passwordEncoder) {
+        this.dataSource = dataSource;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        long started = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection()) {
+            if (alreadyGenerated(connection)) {
+                logger.info("Synthetic dataset already present, skipping generation");
+                return;
+            }
+            logger.info("Generating synthetic dataset: {} students, {} tags, {} works, ~{} comments, ~{} ratings",
+                    studentCount, tagCount, workCount, commentCount, ratingCount);
+            boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            connection.setAutoCommit(false);
+            try {
+                generate(connection, postgres);
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                logger.error("Error generating synthetic dataset", e);
+                throw e;
+            }
+            connection.setAutoCommit(true);
+            for (String table : List.of("students", "tags", "final_works", "comments", "ratings")) {
+                restartIdentity(connection, postgres, table);
+            }
+        }
+        logger.info("Generated synthetic dataset in {} s", (System.currentTimeMillis() - started) / 1000);
+    }
+
+    private void generate(Connection connection, boolean postgres) throws SQLException {
+        Random random = new Random(seed);
+        long studentBase = maxId(connection, "students");
+        long tagBase = maxId(connection, "tags");
+        long workBase = maxId(connection, "final_works");
+        long commentId = maxId(connection, "comments");
+        long ratingId = maxId(connection, "ratings");
+
+        // One hash for everybody: BCrypt per row would dominate the load time
+        String passwordHash = passwordEncoder.encode(password);
+        try (RowSink students = sink(connection, postgres, "students", "id", "name", "email", "password", "role", "version")) {
+            for (int i = 1; i <= studentCount; i++) {
+                students.add(studentBase + i, "Load Tester " + i, "loadtest" + i + "@example.com", passwordHash, "USER", 0L);
+                if (i % BATCH_SIZE == 0) {
+                    students.flush();
+                }
+            }
+        }
+        logger.info("Loaded {} students", studentCount);
+
+        Set<String> existingTags = existingTagNames(connection);
+        try (RowSink tags = sink(connection, postgres, "tags", "id", "name", "version")) {
+            for (int i = 1; i <= tagCount; i++) {
+                String stem = TAG_STEMS[(i - 1) % TAG_STEMS.length];
+                String name = i <= TAG_STEMS.length ? stem : stem + "-" + ((i - 1) / TAG_STEMS.length);
+                if (existingTags.contains(name)) {
+                    name = name + "-lt";
+                }
+                tags.add(tagBase + i, name, 0L);
+            }
+        }
+        logger.info("Loaded {} tags", tagCount);
+
+        double[] tagCumulative = zipfCumulative(tagCount, 1.07);
+        long[] commentsPerWork = heavyTailedCounts(random, workCount, commentCount, 1.3, Long.MAX_VALUE);
+        long[] ratingsPerWork = heavyTailedCounts(random, workCount, ratingCount, 1.2, studentCount);
+        LocalDateTime start = LocalDateTime.now().minusYears(3);
+        long spanMinutes = 3L * 365 * 24 * 60;
+
+        try (RowSink works = sink(connection, postgres, "final_works", "id", "title", "description", "file_url",
+                "submitted_at", "version", "rating_sum", "rating_count", "comment_count", "student_id");
+             RowSink workTags = sink(connection, postgres, "final_work_tags", "final_work_id", "tag_id");
+             RowSink comments = sink(connection, postgres, "comments", "id", "content", "author_name", "created_at",
+                     "version", "final_work_id");
+             RowSink ratings = sink(connection, postgres, "ratings", "id", "student_id", "final_work_id", "rating",
+                     "version")) {
+            for (int i = 0; i < workCount; i++) {
+                long workId = workBase + i + 1;
+                boolean czech = random.nextDouble() < 0.7;
+                LocalDateTime submittedAt = start.plusMinutes((long) (random.nextDouble() * spanMinutes));
+
+                // Ratings first, the work row carries their aggregates
+                int raters = (int) ratingsPerWork[i];
+                double quality = 2.5 + random.nextDouble() * 2.3;
+                long sum = 0;
+                long first = random.nextInt(studentCount);
+                long step = coprimeStep(random, studentCount);
+                for (int r = 0; r < raters; r++) {
+                    long studentId = studentBase + 1 + (first + r * step) % studentCount;
+                    int rating = (int) Math.max(1, Math.min(5, Math.round(quality + random.nextGaussian() * 0.9)));
+                    sum += rating;
+                    ratings.add(++ratingId, studentId, workId, rating, 0L);
+                }
+
+                works.add(workId, capitalize(text(random, czech, 5 + random.nextInt(6))),
+                        capitalize(text(random, czech, 40 + random.nextInt(110))) + ".",
+                        "https://files.example.com/works/" + workId + ".pdf", submittedAt, 0L, sum, (long) raters,
+                        commentsPerWork[i], studentBase + 1 + random.nextInt(studentCount));
+
+                Set<Integer> chosen = new HashSet<>();
+                int wanted = 2 + random.nextInt(5);
+                while (chosen.size() < wanted) {
+                    chosen.add(sampleZipf(random, tagCumulative));
+                }
+                for (int tag : chosen) {
+                    workTags.add(workId, tagBase + tag + 1);
+                }
+
+                for (long c = 0; c < commentsPerWork[i]; c++) {
+                    comments.add(++commentId, capitalize(text(random, random.nextDouble() < 0.7, 8 + random.nextInt(40))),
+                            "Load Tester " + (1 + random.nextInt(studentCount)),
+                            submittedAt.plusMinutes(1 + (long) (random.nextDouble() * 60 * 24 * 90)), 0L, workId);
+                }
+
+                if ((i + 1) % WORK_CHUNK == 0 || i + 1 == workCount) {
+                    works.flush();
+                    workTags.flush();
+                    comments.flush();
+                    ratings.flush();
+                }
+                if ((i + 1) % 10_000 == 0) {
+                    logger.info("Loaded {} / {} works", i + 1, workCount);
+                }
+            }
+        }
+    }
+
+    private boolean alreadyGenerated(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM students WHERE email = ?")) {
+            statement.setString(1, "loadtest1@example.com");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static Set<String> existingTagNames(Connection connection) throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM tags")) {
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+        }
+        return names;
+    }
+
+    // Rows were inserted with explicit ids, so move the identity past them
+    private static void restartIdentity(Connection connection, boolean postgres, String table) throws SQLException {
+        long next = maxId(connection, table) + 1;
+        try (Statement statement = connection.createStatement()) {
+            if (postgres) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " + next + ", false)");
+            } else {
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+            }
+        }
+    }
+
+    /**
+     * Splits {@code total} over {@code n} items with Pareto-distributed weights, capped per item.
+     */
+    private static long[] heavyTailedCounts(Random random, int n, long total, double alpha, long cap) {
+        double[] weights = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1.0 / Math.pow(1.0 - random.nextDouble(), 1.0 / alpha);
+            sum += weights[i];
+        }
+        long[] counts = new long[n];
+        for (int i = 0; i < n; i++) {
+            counts[i] = Math.min(cap, Math.round(total * weights[i] / sum));
+        }
+        return counts;
+    }
+
+    private static double[] zipfCumulative(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, exponent);
+            cumulative[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sampleZipf(Random random, double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    // Walking (first + r * step) mod n with gcd(step, n) = 1 visits distinct students
+    private static long coprimeStep(Random random, int n) {
+        if (n == 1) {
+            return 1;
+        }
+        long step;
+        do {
+            step = 1 + random.nextInt(n - 1);
+        } while (gcd(step, n) != 1);
+        return step;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private static String text(Random random, boolean czech, int words) {
+        String[] vocabulary = czech ? CZECH_WORDS : ENGLISH_WORDS;
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(vocabulary[random.nextInt(vocabulary.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String capitalize(String text) {
+        return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static RowSink sink(Connection connection, boolean postgres, String table, String... columns) throws SQLException {
+        return postgres ? new CopySink(connection, table, columns) : new BatchSink(connection, table, columns);
+    }
+
+    private interface RowSink extends AutoCloseable {
+
+        void add(Object... values) throws SQLException;
+
+        void flush() throws SQLException;
+
+        @Override
+        void close() throws SQLException;
+    }
+
+    private static class BatchSink implements RowSink {
+
+        private final PreparedStatement statement;
+        private int pending;
+
+        BatchSink(Connection connection, String table, String... columns) throws SQLException {
+            String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+            this.statement = connection.prepareStatement(
+                    "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")");
+        }
+
+        @Override
+        public void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                statement.setObject(i + 1, value instanceof LocalDateTime time ? Timestamp.valueOf(time) : value);
+            }
+            statement.addBatch();
+            pending++;
+        }
+
+        @Override
+        public void flush() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            statement.close();
+        }
+    }
+
+    private static class CopySink implements RowSink {
+
+        private final CopyManager copyManager;
+        private final String sql;
+        private final StringBuilder buffer = new StringBuilder();
+
+        CopySink(Connection connection, String table, String... columns) throws SQLException {
+            this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            this.sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN (FORMAT csv)";
+        }
+
+        @Override
+        public void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                Object value = values[i];
+                if (value instanceof String text) {
+                    buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+                } else if (value != null) {
+                    buffer.append(value);
+                }
+            }
+            buffer.append('\n');
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+        }
+
+        @Override
+        public void flush() throws SQLException {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            try {
+                copyManager.copyIn(sql, new StringReader(buffer.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY into " + sql + " failed", e);
+            }
+            buffer.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.finalworks.service;
+
+import com.finalworks.event.FinalWorkChangedEvent;
+import com.finalworks.exception.BadRequestException;
+import com.finalworks.model.Tag;
+import com.finalworks.repository.FinalWorkRepository;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory inverted index of tag name -> compressed bitmap of final work ids.
+ * Answers AND/OR tag filters and facet counts without touching the database.
+ * Bitmaps are copy-on-write: writers publish a modified copy, so readers never
+ * see a bitmap that is being changed.
+ */
+@Service
+public class TagIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagIndexService.class);
+
+    public enum Mode {
+        ALL,
+        ANY;
+
+        public static Mode parse(String value) {
+            for (Mode mode : values()) {
+                if (mode.name().equalsIgnoreCase(value)) {
+                    return mode;
+                }
+            }
+            throw new BadRequestException("Invalid tag filter mode: " + value + " (expected 'all' or 'any')");
+        }
+    }
+
+    private final FinalWorkRepository finalWorkRepository;
+
+    private final Map<String, RoaringBitmap> worksByTag = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> tagsByWork = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public TagIndexService(FinalWorkRepository finalWorkRepository) {
+        this.finalWorkRepository = finalWorkRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        logger.info("Loading tag index");
+        // Read under the lock too: a change applied while we read would be overwritten by our older rows
+        writeLock.lock();
+        try {
+            Map<String, RoaringBitmap> loaded = new HashMap<>();
+            Map<Long, Set<String>> reverse = new HashMap<>();
+            for (Object[] row : finalWorkRepository.findAllWorkTagNames()) {
+                Long workId = (Long) row[0];
+                String tagName = (String) row[1];
+                loaded.computeIfAbsent(tagName, key -> new RoaringBitmap()).add(toBit(workId));
+                reverse.computeIfAbsent(workId, key -> new HashSet<>()).add(tagName);
+            }
+            loaded.values().forEach(RoaringBitmap::runOptimize);
+
+            worksByTag.clear();
+            worksByTag.putAll(loaded);
+            tagsByWork.clear();
+            tagsByWork.putAll(reverse);
+            logger.info("Loaded tag index with {} tags over {} final works", loaded.size(), reverse.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true, condition = "#event.type.affectsContent()")
+    public void onFinalWorkChanged(FinalWorkChangedEvent event) {
+        Long workId = event.getFinalWorkId();
+        // Read under the lock, so two changes of one work are applied in the order they were read
+        writeLock.lock();
+        try {
+            Set<String> newTags = new HashSet<>();
+            if (event.getType() != FinalWorkChangedEvent.Type.DELETED) {
+                for (Object[] row : finalWorkRepository.findTagsByWorkIds(List.of(workId))) {
+                    newTags.add(((Tag) row[1]).getName());
+                }
+            }
+            Set<String> oldTags = tagsByWork.getOrDefault(workId, Set.of());
+            int bit = toBit(workId);
+            for (String tag : oldTags) {
+                if (!newTags.contains(tag)) {
+                    RoaringBitmap copy = worksByTag.getOrDefault(tag, new RoaringBitmap()).clone();
+                    copy.remove(bit);
+                    if (copy.isEmpty()) {
+                        worksByTag.remove(tag);
+                    } else {
+                        worksByTag.put(tag, copy);
+                    }
+                }
+            }
+            for (String tag : newTags) {
+                if (!oldTags.contains(tag)) {
+                    RoaringBitmap copy = worksByTag.getOrDefault(tag, new RoaringBitmap()).clone();
+                    copy.add(bit);
+                    worksByTag.put(tag, copy);
+                }
+            }
+            if (newTags.isEmpty()) {
+                tagsByWork.remove(workId);
+            } else {
+                tagsByWork.put(workId, newTags);
+            }
+            logger.debug("Tag index updated for final work {}: {}", workId, newTags);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Ids of works carrying all (or any) of the given tags. Unknown tags match nothing.
+     */
+    public RoaringBitmap match(Collection<String> tagNames, Mode mode) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        for (String name : new HashSet<>(tagNames)) {
+            RoaringBitmap bitmap = worksByTag.get(name.trim());
+            if (bitmap != null) {
+                bitmaps.add(bitmap);
+            } else if (mode == Mode.ALL) {
+                return new RoaringBitmap();
+            }
+        }
+        if (bitmaps.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        return mode == Mode.ALL
+                ? FastAggregation.and(bitmaps.iterator())
+                : FastAggregation.or(bitmaps.iterator());
+    }
+
+    /**
+     * For every known tag, how many of the given works carry it; tags with no hits are omitted.
+     * Sorted by count, most frequent first.
+     */
+    public Map<String, Integer> facetCounts(RoaringBitmap works) {
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        worksByTag.forEach((tag, bitmap) -> {
+            int count = RoaringBitmap.andCardinality(bitmap, works);
+            if (count > 0) {
+                counts.add(Map.entry(tag, count));
+            }
+        });
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> result = new LinkedHashMap<>();
+        counts.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    /**
+     * Up to {@code limit} ids from {@code works}, highest first, strictly below {@code beforeId}.
+     */
+    public List<Long> pageDescending(RoaringBitmap works, long beforeId, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        if (beforeId <= 0) {
+            return ids;
+        }
+        long next = works.previousValue((int) Math.min(beforeId - 1, Integer.MAX_VALUE));
+        while (next >= 0 && ids.size() < limit) {
+            ids.add(next);
+            next = next == 0 ? -1 : works.previousValue((int) next - 1);
+        }
+        return ids;
+    }
+
+    private static int toBit(Long workId) {
+        return Math.toIntExact(workId);
+    }
+}
@@ -4,26 +4,42 @@ import com.finalworks.dto.TagDTO;
 import com.finalworks.exception.ConflictException;
 import com.finalworks.model.Tag;
 import com.finalworks.repository.TagRepository;
+import com.finalworks.repository.UpsertRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "finalworks.service", histogram = true)
 public class TagService {
 
     private static final Logger logger = LoggerFactory.getLogger(TagService.class);
 
     private final TagRepository tagRepository;
+    private final UpsertRepository upsertRepository;
 
-    public TagService(TagRepository tagRepository) {
+    // Tag name -> id, so resolving known tags needs no lookup by name
+    private final Map<String, Long> tagIds = new ConcurrentHashMap<>();
+
+    public TagService(TagRepository tagRepository, UpsertRepository upsertRepository) {
         this.tagRepository = tagRepository;
+        this.upsertRepository = upsertRepository;
     }
 
+    @Transactional(readOnly = true)
     public List<TagDTO> getAllTags() {
         logger.debug("Fetching all tags");
         List<TagDTO> tags = tagRepository.findAll().stream()
@@ -33,6 +49,7 @@ public class TagService {
         return tags;
     }
 
+    @Transactional(readOnly = true)
     public List<TagDTO> getPopularTags() {
         logger.debug("Fetching popular tags");
         List<TagDTO> tags = tagRepository.findAllByPopularityDesc().stream()
@@ -53,18 +70,80 @@ public class TagService {
         Tag tag = new Tag();
         tag.setName(tagDTO.getName().trim());
         Tag saved = tagRepository.save(tag);
+        tagIds.put(saved.getName(), saved.getId());
         logger.info("Created tag with id: {}", saved.getId());
         return convertToDTO(saved);
     }
 
     Tag findOrCreateTag(String name) {
-        String trimmedName = name.trim();
-        return tagRepository.findByName(trimmedName)
-                .orElseGet(() -> {
-                    Tag newTag = new Tag();
-                    newTag.setName(trimmedName);
-                    return tagRepository.save(newTag);
-                });
+        return resolveTags(List.of(name)).iterator().next();
+    }
+
+    /**
+     * Tags for the given names (trimmed, blank and duplicate names dropped), creating the
+     * missing ones. Known names are looked up by id in one query; the rest by name in one
+     * query, and whatever is still missing is inserted in one statement that concurrent
+     * callers cannot race into a unique-constraint violation.
+     */
+    Set<Tag> resolveTags(Collection<String> names) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                normalized.add(name.trim());
+            }
+        }
+        Set<Tag> tags = new HashSet<>();
+        if (normalized.isEmpty()) {
+            return tags;
+        }
+
+        Set<Long> knownIds = new HashSet<>();
+        for (String name : normalized) {
+            Long id = tagIds.get(name);
+            if (id != null) {
+                knownIds.add(id);
+            }
+        }
+        Set<String> unresolved = new HashSet<>(normalized);
+        if (!knownIds.isEmpty()) {
+            for (Tag tag : tagRepository.findAllById(knownIds)) {
+                tags.add(tag);
+                unresolved.remove(tag.getName());
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            unresolved.removeAll(remember(tags, tagRepository.findByNameIn(unresolved)));
+        }
+        if (!unresolved.isEmpty()) {
+            int inserted = upsertRepository.insertTagsIfAbsent(unresolved);
+            // Also picks up tags a concurrent request created in the meantime
+            unresolved.removeAll(remember(tags, tagRepository.findByNameIn(unresolved)));
+            logger.info("Created {} tags", inserted);
+        }
+        if (!unresolved.isEmpty()) {
+            throw new IllegalStateException("Tags disappeared while being created: " + unresolved);
+        }
+        return tags;
+    }
+
+    private Set<String> remember(Set<Tag> tags, List<Tag> found) {
+        Set<String> names = new HashSet<>();
+        for (Tag tag : found) {
+            tags.add(tag);
+            tagIds.put(tag.getName(), tag.getId());
+            names.add(tag.getName());
+        }
+        return names;
+    }
+
+    // Tags are never deleted, so the dictionary only grows. Names created by other instances are found by name,
+    // an id whose insert was rolled back is not found by id and resolved by name again.
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTagIds() {
+        for (Object[] row : tagRepository.findAllNamesAndIds()) {
+            tagIds.put((String) row[0], (Long) row[1]);
+        }
+        logger.info("Loaded {} tag ids", tagIds.size());
     }
 
     private TagDTO convertToDTO(Tag tag) {
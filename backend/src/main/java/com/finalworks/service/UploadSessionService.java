@@ -0,0 +1,243 @@
+package com.finalworks.service;
+
+import com.finalworks.dto.StoredFileDTO;
+import com.finalworks.dto.UploadRequestDTO;
+import com.finalworks.dto.UploadSessionDTO;
+import com.finalworks.exception.BadRequestException;
+import com.finalworks.exception.ConflictException;
+import com.finalworks.exception.ResourceNotFoundException;
+import com.finalworks.model.Student;
+import com.finalworks.model.UploadSession;
+import com.finalworks.repository.UploadSessionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resumable chunked uploads for files beyond the multipart limit. The client announces the
+ * file and its SHA-256, then PUTs consecutive chunks; each chunk claims its offset, streams
+ * from the request straight into the part file (no heap buffering) and advances the stored
+ * offset, which tells the client where to resume after a dropped connection. The last chunk
+ * verifies the checksum and moves the file into the {@link FileStorageService}. Abandoned
+ * uploads are purged after upload-expiry.
+ *
+ * Part files are on this instance's disk unless shared-storage is set, so an upload only
+ * accepts chunks on the instance that started it.
+ */
+@Service
+public class UploadSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadSessionService.class);
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final FileStorageService fileStorageService;
+    private final Path partsDir;
+    private final long maxFileSize;
+    private final long chunkSize;
+    private final Duration chunkTimeout;
+    private final Duration uploadExpiry;
+    private final boolean sharedStorage;
+    private final String nodeId;
+
+    public UploadSessionService(UploadSessionRepository uploadSessionRepository,
+                                FileStorageService fileStorageService,
+                                @Value("${finalworks.files.storage-dir:data/files}") String storageDir,
+                                @Value("${finalworks.files.max-size:500MB}") DataSize maxFileSize,
+                                @Value("${finalworks.files.chunk-size:8MB}") DataSize chunkSize,
+                                @Value("${finalworks.files.chunk-timeout:5m}") Duration chunkTimeout,
+                                @Value("${finalworks.files.upload-expiry:24h}") Duration uploadExpiry,
+                                @Value("${finalworks.files.shared-storage:false}") boolean sharedStorage,
+                                @Value("${finalworks.files.node-id:}") String nodeId) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.fileStorageService = fileStorageService;
+        this.partsDir = Paths.get(storageDir, "uploads").toAbsolutePath();
+        this.maxFileSize = maxFileSize.toBytes();
+        this.chunkSize = chunkSize.toBytes();
+        this.chunkTimeout = chunkTimeout;
+        this.uploadExpiry = uploadExpiry;
+        this.sharedStorage = sharedStorage;
+        this.nodeId = nodeId.isBlank() ? hostName() : nodeId;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(partsDir);
+        logger.info("Upload part files in {} ({})", partsDir, sharedStorage ? "shared" : "pinned to node " + nodeId);
+    }
+
+    public UploadSessionDTO startUpload(UploadRequestDTO request) {
+        logger.info("Starting upload of {} ({} bytes)", request.getFileName(), request.getSize());
+        if (request.getSize() > maxFileSize) {
+            throw new BadRequestException("File exceeds the maximum size of " + maxFileSize + " bytes");
+        }
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setStudent(currentStudent());
+        session.setFileName(FileStorageService.cleanFileName(request.getFileName()));
+        session.setContentType(FileStorageService.cleanContentType(request.getContentType()));
+        session.setTotalSize(request.getSize());
+        session.setExpectedSha256(request.getSha256());
+        session.setNodeId(nodeId);
+        UploadSession saved = uploadSessionRepository.save(session);
+        logger.info("Created upload session {}", saved.getId());
+        return toDTO(saved, null);
+    }
+
+    public UploadSessionDTO getUpload(String id) {
+        return toDTO(findOwn(id), null);
+    }
+
+    /**
+     * Writes one chunk at the given offset, which must be where the upload currently stands.
+     * Completes the upload when the chunk ends at the announced size.
+     */
+    public UploadSessionDTO appendChunk(String id, long offset, long length, InputStream body) throws IOException {
+        UploadSession session = findLocal(id);
+        if (offset != session.getReceivedBytes()) {
+            throw new ConflictException("Upload " + id + " continues at offset " + session.getReceivedBytes() + ", not " + offset);
+        }
+        if (length <= 0 || length > chunkSize) {
+            throw new BadRequestException("Chunks must be between 1 and " + chunkSize + " bytes");
+        }
+        long end = offset + length;
+        if (end > session.getTotalSize()) {
+            throw new BadRequestException("Chunk ends past the announced size of " + session.getTotalSize() + " bytes");
+        }
+
+        // Claim the offset before writing, so two requests for the same offset never both write
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        if (uploadSessionRepository.claim(id, offset, token, now, now.plus(chunkTimeout)) == 0) {
+            throw new ConflictException("Upload " + id + " is being advanced by another request; check its offset and resume");
+        }
+        try (FileChannel part = FileChannel.open(partFile(id), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ReadableByteChannel source = Channels.newChannel(body);
+            long written = 0;
+            while (written < length) {
+                long transferred = part.transferFrom(source, offset + written, length - written);
+                if (transferred == 0) {
+                    break;
+                }
+                written += transferred;
+            }
+            if (written < length) {
+                throw new BadRequestException("Chunk ended after " + written + " of " + length + " bytes");
+            }
+        } catch (IOException | RuntimeException e) {
+            uploadSessionRepository.release(id, token);
+            throw e;
+        }
+        if (uploadSessionRepository.advance(id, token, end, LocalDateTime.now()) == 0) {
+            throw new ConflictException("Upload " + id + " was advanced by another request; check its offset and resume");
+        }
+        logger.debug("Upload {}: received bytes {}-{} of {}", id, offset, end - 1, session.getTotalSize());
+        session.setReceivedBytes(end);
+        return end == session.getTotalSize() ? complete(session) : toDTO(session, null);
+    }
+
+    public void cancelUpload(String id) throws IOException {
+        findLocal(id);
+        discard(id);
+        logger.info("Cancelled upload {}", id);
+    }
+
+    @Scheduled(fixedDelayString = "${finalworks.files.upload-cleanup-interval:3600000}")
+    public void purgeExpiredUploads() {
+        // Without shared storage every instance purges the uploads whose part files it holds
+        LocalDateTime cutoff = LocalDateTime.now().minus(uploadExpiry);
+        List<UploadSession> expired = sharedStorage
+                ? uploadSessionRepository.findByUpdatedAtBefore(cutoff)
+                : uploadSessionRepository.findByNodeIdAndUpdatedAtBefore(nodeId, cutoff);
+        for (UploadSession session : expired) {
+            try {
+                discard(session.getId());
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not purge expired upload {}", session.getId(), e);
+            }
+        }
+        if (!expired.isEmpty()) {
+            logger.info("Purged {} uploads idle for more than {}", expired.size(), uploadExpiry);
+        }
+    }
+
+    private UploadSessionDTO complete(UploadSession session) throws IOException {
+        Path part = partFile(session.getId());
+        // Also rejects sessions started before the checksum was required
+        if (!fileStorageService.hash(part).equals(session.getExpectedSha256())) {
+            discard(session.getId());
+            throw new BadRequestException("Uploaded content does not match the announced SHA-256, upload discarded");
+        }
+        StoredFileDTO file = fileStorageService.store(part, session.getFileName(), session.getContentType());
+        uploadSessionRepository.deleteById(session.getId());
+        logger.info("Completed upload {} as file {}", session.getId(), file.getSha256());
+        return toDTO(session, file);
+    }
+
+    private void discard(String id) throws IOException {
+        uploadSessionRepository.deleteById(id);
+        Files.deleteIfExists(partFile(id));
+    }
+
+    private UploadSession findOwn(String id) {
+        UploadSession session = uploadSessionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload not found: " + id));
+        if (!session.getStudent().getId().equals(currentStudent().getId())) {
+            logger.warn("Student {} tried to access upload {} of another student", currentStudent().getId(), id);
+            throw new ResourceNotFoundException("Upload not found: " + id);
+        }
+        return session;
+    }
+
+    private UploadSession findLocal(String id) {
+        UploadSession session = findOwn(id);
+        if (!sharedStorage && !nodeId.equals(session.getNodeId())) {
+            logger.warn("Upload {} of node {} reached node {}", id, session.getNodeId(), nodeId);
+            throw new ConflictException("Upload " + id + " is held by another instance; send its chunks there");
+        }
+        return session;
+    }
+
+    private Path partFile(String id) {
+        return partsDir.resolve(id + ".part");
+    }
+
+    private static Student currentStudent() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (Student) authentication.getPrincipal();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot determine the host name, set finalworks.files.node-id", e);
+        }
+    }
+
+    private UploadSessionDTO toDTO(UploadSession session, StoredFileDTO file) {
+        return new UploadSessionDTO(session.getId(), session.getFileName(), session.getTotalSize(),
+                session.getReceivedBytes(), chunkSize, file);
+    }
+}
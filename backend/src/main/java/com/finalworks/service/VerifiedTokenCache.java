@@ -0,0 +1,171 @@
+package com.finalworks.service;
+
+import com.finalworks.event.StudentChangedEvent;
+import com.finalworks.model.Student;
+import com.finalworks.repository.StudentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves a bearer token to its Student principal, verifying each token only once.
+ *
+ * The first request with a token on an instance checks its signature and loads the student
+ * row (by the token's student id), so name and role always come from the database and
+ * deleted students or changed emails are rejected. The detached principal is then cached by
+ * token hash until the token expires. {@link #revoke(Long)} is called whenever a student
+ * changes or is deleted, locally by StudentController and for other instances' changes by
+ * the StudentChangedEvents that CacheInvalidationBus relays: cached principals for that
+ * student are dropped and their next request loads the row again.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private record Entry(Student student, long verifiedAt, long expiresAt) {
+    }
+
+    private final JwtService jwtService;
+    private final StudentRepository studentRepository;
+    private final StudentUserDetailsService userDetailsService;
+    private final Cache<String, Entry> cache;
+
+    // Student id -> time of the last change; cache entries verified before it are not trusted
+    private final Map<Long, Long> revokedAt = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache(JwtService jwtService,
+                              StudentRepository studentRepository,
+                              StudentUserDetailsService userDetailsService,
+                              @Value("${finalworks.security.token-cache.max-size:10000}") long maxSize) {
+        this.jwtService = jwtService;
+        this.studentRepository = studentRepository;
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        long remaining = entry.expiresAt() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * The principal for a token, or null if the token is invalid, expired or its student is gone.
+     */
+    public Student resolve(String token) {
+        String key = hash(token);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && !isRevoked(cached.student().getId(), cached.verifiedAt())) {
+            return cached.student();
+        }
+
+        Claims claims;
+        try {
+            claims = jwtService.parseVerified(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        Student student = loadStudent(claims);
+        if (student == null) {
+            return null;
+        }
+        cache.put(key, new Entry(student, now, claims.getExpiration().getTime()));
+        return student;
+    }
+
+    public void revoke(Long studentId) {
+        revokeNow(studentId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Requests running before the commit may still have read and cached the old row
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revokeNow(studentId);
+                }
+            });
+        }
+    }
+
+    @EventListener(condition = "#event.remote")
+    public void onStudentChanged(StudentChangedEvent event) {
+        revokeNow(event.getStudentId());
+    }
+
+    /** Drops every cached principal, e.g. when invalidations from other instances may have been missed. */
+    public void revokeAll() {
+        cache.invalidateAll();
+    }
+
+    private void revokeNow(Long studentId) {
+        long now = System.currentTimeMillis();
+        revokedAt.put(studentId, now);
+        // No token issued before that could still be valid
+        revokedAt.values().removeIf(time -> now - time > jwtService.getExpirationTime());
+        cache.asMap().values().removeIf(entry -> studentId.equals(entry.student().getId()));
+        logger.debug("Revoked cached tokens for student {}", studentId);
+    }
+
+    private Student loadStudent(Claims claims) {
+        Number id = claims.get(JwtService.CLAIM_STUDENT_ID, Number.class);
+        if (id == null) {
+            // Tokens from before the id claim existed
+            try {
+                return (Student) userDetailsService.loadUserByUsername(claims.getSubject());
+            } catch (UsernameNotFoundException e) {
+                return null;
+            }
+        }
+        return studentRepository.findById(id.longValue())
+                // A changed email invalidates the tokens issued for the old one
+                .filter(student -> student.getEmail().equals(claims.getSubject()))
+                .orElse(null);
+    }
+
+    private boolean isRevoked(Long studentId, long time) {
+        Long revoked = revokedAt.get(studentId);
+        return revoked != null && time <= revoked;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
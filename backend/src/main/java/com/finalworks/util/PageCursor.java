@@ -0,0 +1,74 @@
+package com.finalworks.util;
+
+import com.finalworks.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort key of the last row on a page plus its id as tie-breaker.
+ * Clients only pass the encoded string back, they never need to understand it.
+ */
+public final class PageCursor {
+
+    private static final PageCursor FIRST_BY_TIME = new PageCursor(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final long key;
+    private final long id;
+
+    private PageCursor(long key, long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public static PageCursor of(long key, Long id) {
+        return new PageCursor(key, id);
+    }
+
+    public static PageCursor of(LocalDateTime time, Long id) {
+        Instant instant = time.toInstant(ZoneOffset.UTC);
+        return new PageCursor(ChronoUnit.MICROS.between(Instant.EPOCH, instant), id);
+    }
+
+    /**
+     * Decodes a client supplied cursor; a missing cursor means "start from the top".
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST_BY_TIME;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new PageCursor(Long.parseLong(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        String raw = key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public LocalDateTime getKeyAsTime() {
+        // Clamp the "first page" sentinel instead of overflowing LocalDateTime
+        if (key == Long.MAX_VALUE) {
+            return LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+        }
+        Instant instant = Instant.EPOCH.plus(key, ChronoUnit.MICROS);
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,146 @@
+package com.finalworks.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finalworks.exception.QueryBudgetExceededException;
+import com.finalworks.model.FinalWork;
+import com.finalworks.repository.FinalWorkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With the test profile (finalworks.sql.budget.enforce=true) a request that breaks its SQL
+ * statement budget fails. The listing endpoints must stay within theirs; a handler that loads
+ * one row per work (the N+1 shape) must be rejected.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(QueryBudgetEnforcementTest.NPlusOneController.class)
+class QueryBudgetEnforcementTest {
+
+    private static final int WORKS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FinalWorkRepository finalWorkRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${finalworks.sql.budget.repeated}")
+    private int repeatedBudget;
+
+    /** Reads every work's tags with its own query, as a lazy association in a loop would. */
+    @RestController
+    static class NPlusOneController {
+
+        private final FinalWorkRepository finalWorkRepository;
+
+        NPlusOneController(FinalWorkRepository finalWorkRepository) {
+            this.finalWorkRepository = finalWorkRepository;
+        }
+
+        @GetMapping("/api/final-works/n-plus-one")
+        public List<Integer> tagCounts() {
+            return finalWorkRepository.findAll().stream()
+                    .map(work -> finalWorkRepository.findByIdWithTags(work.getId()).map(FinalWork::getTags).orElseThrow().size())
+                    .toList();
+        }
+    }
+
+    @BeforeEach
+    void createWorks() throws Exception {
+        if (finalWorkRepository.count() >= WORKS) {
+            return;
+        }
+        String token = login();
+        for (int i = 0; i < WORKS; i++) {
+            Map<String, Object> work = Map.of(
+                    "title", "Práce " + i,
+                    "fileUrl", "https://example.com/works/" + i + ".pdf",
+                    "tags", List.of(Map.of("name", "common"), Map.of("name", "topic-" + i % 4)));
+            mockMvc.perform(post("/api/final-works")
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(work)))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    @Test
+    void listingsStayWithinTheirBudget() throws Exception {
+        for (String uri : List.of(
+                "/api/final-works?limit=50",
+                "/api/final-works/newest?limit=50",
+                "/api/final-works/top-rated?limit=50",
+                "/api/final-works/filter?tags=common&tags=topic-1&mode=any&limit=50",
+                "/api/final-works/search?q=Práce&limit=50",
+                "/api/tags")) {
+            mockMvc.perform(get(uri)).andExpect(status().isOk());
+        }
+        assertThat(meterRegistry.find(StatementCounter.EXCEEDED_METRIC).counters())
+                .map(counter -> counter.getId().getTag("endpoint"))
+                .allMatch(endpoint -> endpoint.startsWith("NPlusOneController."));
+    }
+
+    @Test
+    void nPlusOneShapeIsRejected() throws Exception {
+        assertThat(finalWorkRepository.count()).isGreaterThan(repeatedBudget);
+
+        MvcResult result = mockMvc.perform(get("/api/final-works/n-plus-one"))
+                .andExpect(status().isInternalServerError())
+                .andReturn();
+
+        assertThat(causes(result.getResolvedException())).anyMatch(QueryBudgetExceededException.class::isInstance);
+        Counter exceeded = meterRegistry.find(StatementCounter.EXCEEDED_METRIC)
+                .tags("endpoint", "NPlusOneController.tagCounts", "reason", "repeated")
+                .counter();
+        assertThat(exceeded).isNotNull();
+        assertThat(exceeded.count()).isEqualTo(1.0);
+    }
+
+    private static List<Throwable> causes(Throwable exception) {
+        List<Throwable> causes = new ArrayList<>();
+        for (Throwable cause = exception; cause != null && !causes.contains(cause); cause = cause.getCause()) {
+            causes.add(cause);
+        }
+        return causes;
+    }
+
+    private String login() throws Exception {
+        String response = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"jan.novak@example.com\", \"password\": \"Password123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+}
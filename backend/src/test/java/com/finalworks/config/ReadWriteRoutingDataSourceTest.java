@@ -0,0 +1,136 @@
+package com.finalworks.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes over two separate H2 databases, each holding one row that names it, wired the way
+ * ReadReplicaConfig wires the two pools (lazy proxy over the router).
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private ReadWriteRoutingDataSource router;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry));
+        router = new ReadWriteRoutingDataSource(database("primary"), database("replica"), Duration.ofMinutes(1),
+                beans.getBeanProvider(MeterRegistry.class));
+        router.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(router);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertThat(databaseIn(readOnly)).isEqualTo("replica");
+        assertThat(databaseIn(readWrite)).isEqualTo("primary");
+        assertThat(database()).isEqualTo("primary");
+        assertThat(routed("replica")).isEqualTo(1.0);
+    }
+
+    @Test
+    void userReadsTheirOwnWritesFromThePrimary() {
+        login("writer");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET name = name"));
+        assertThat(databaseIn(readOnly)).isEqualTo("primary");
+
+        login("reader");
+        assertThat(databaseIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotMakeTheUserSticky() {
+        login("writer");
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE marker SET name = name");
+            status.setRollbackOnly();
+        });
+        assertThat(databaseIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void unavailableReplicaFallsBackToThePrimary() {
+        router.markReplica(false, "test");
+        assertThat(databaseIn(readOnly)).isEqualTo("primary");
+
+        router.markReplica(true, "test");
+        assertThat(databaseIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void onPrimaryReadsThePrimaryWithoutCountingAsAWrite() {
+        login("reader");
+        assertThat(onPrimary()).isEqualTo("primary");
+        assertThat(databaseIn(readOnly)).isEqualTo("replica");
+
+        // Also without a user, as on event listener threads
+        SecurityContextHolder.clearContext();
+        assertThat(onPrimary()).isEqualTo("primary");
+    }
+
+    private String onPrimary() {
+        return ReadWriteRoutingDataSource.onPrimary(() -> databaseIn(readOnly));
+    }
+
+    private String databaseIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> database());
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private double routed(String target) {
+        return meterRegistry.get(ReadWriteRoutingDataSource.ROUTE_METRIC).tag("target", target).counter().count();
+    }
+
+    private static void login(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE marker (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,128 @@
+package com.finalworks.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finalworks.repository.FinalWorkRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The listing endpoints must prepare the same number of SQL statements whatever the page size
+ * (counted by StatementCounter into finalworks.http.statements). Every work has tags, a rating
+ * and a comment, so loading an association row by row would show up as a count that grows
+ * with the page. The feeds hold fewer works than a page, so newest and top-rated are served
+ * by their database queries.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "finalworks.feeds.size=3")
+class ListingStatementCountTest {
+
+    private static final int SMALL_PAGE = 5;
+    private static final int LARGE_PAGE = 50;
+    private static final String STATEMENTS = "finalworks.http.statements";
+
+    private static final Map<String, String> LISTINGS = Map.of(
+            "/api/final-works?", "FinalWorkController.getAllFinalWorks",
+            "/api/final-works/newest?", "FinalWorkController.getNewest",
+            "/api/final-works/top-rated?", "FinalWorkController.getTopRated",
+            "/api/final-works/filter?tags=common&", "FinalWorkController.filter",
+            "/api/final-works/search?q=Práce&", "FinalWorkController.search");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FinalWorkRepository finalWorkRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void listingStatementCountsDoNotGrowWithThePage() throws Exception {
+        createWorks(login(), LARGE_PAGE + 10);
+        assertThat(finalWorkRepository.count()).isGreaterThan(LARGE_PAGE);
+
+        Map<String, Long> small = statementsPerListing(SMALL_PAGE);
+        Map<String, Long> large = statementsPerListing(LARGE_PAGE);
+
+        assertThat(small.values()).allMatch(count -> count > 0);
+        assertThat(large).isEqualTo(small);
+    }
+
+    private Map<String, Long> statementsPerListing(int limit) throws Exception {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, String> listing : LISTINGS.entrySet()) {
+            counts.put(listing.getValue(), statementsOf(listing.getKey() + "limit=" + limit, listing.getValue(), limit));
+        }
+        return counts;
+    }
+
+    private long statementsOf(String uri, String endpoint, int limit) throws Exception {
+        DistributionSummary before = meterRegistry.find(STATEMENTS).tag("endpoint", endpoint).summary();
+        double counted = before == null ? 0 : before.totalAmount();
+        mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(limit));
+        return Math.round(meterRegistry.get(STATEMENTS).tag("endpoint", endpoint).summary().totalAmount() - counted);
+    }
+
+    private void createWorks(String token, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> work = Map.of(
+                    "title", "Práce " + i,
+                    "description", "Popis práce " + i,
+                    "fileUrl", "https://example.com/works/" + i + ".pdf",
+                    "tags", List.of(Map.of("name", "common"), Map.of("name", "topic-" + i % 7)));
+            String created = mockMvc.perform(post("/api/final-works")
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(work)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            long id = objectMapper.readTree(created).get("id").asLong();
+
+            mockMvc.perform(post("/api/ratings/" + id)
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"rating\": " + (1 + i % 5) + "}"))
+                    .andExpect(status().is2xxSuccessful());
+            mockMvc.perform(post("/api/final-works/" + id + "/comments")
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"content\": \"Komentář " + i + "\"}"))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    private String login() throws Exception {
+        String response = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"jan.novak@example.com\", \"password\": \"Password123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+}
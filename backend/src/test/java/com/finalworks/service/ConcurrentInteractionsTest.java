@@ -0,0 +1,146 @@
+package com.finalworks.service;
+
+import com.finalworks.dto.FinalWorkDTO;
+import com.finalworks.dto.TagDTO;
+import com.finalworks.model.Role;
+import com.finalworks.model.Student;
+import com.finalworks.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many users rate, bookmark and tag the same rows at once. Every student runs on two threads,
+ * so the same rating and bookmark are inserted concurrently, and every thread creates a work
+ * with tags that do not exist yet and that other threads create at the same moment. No
+ * request may fail, and the rows and the denormalised rating columns must add up afterwards.
+ *
+ * Runs on the test profile's H2; PostgresConcurrentInteractionsTest runs it against PostgreSQL.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConcurrentInteractionsTest {
+
+    private static final int THREADS = 200;
+    private static final int STUDENTS = THREADS / 2;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private FinalWorkService finalWorkService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentRatingsBookmarksAndTagsAddUp() throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setName("Student " + i);
+            student.setEmail("student-" + run + "-" + i + "@example.com");
+            student.setPassword("{noop}unused");
+            student.setRole(Role.USER);
+            students.add(studentRepository.save(student));
+        }
+        Long workId = as(students.get(0), () -> finalWorkService.createFinalWork(work("Sdílená práce", "shared-" + run)).getId());
+
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                Student student = students.get(thread / 2);
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        as(student, () -> {
+                            ratingService.rateWork(workId, 1 + thread % 5);
+                            bookmarkService.bookmarkWork(workId);
+                            finalWorkService.createFinalWork(work("Práce " + thread,
+                                    "shared-" + run, "new-" + run + "-" + thread % 10, "pair-" + run + "-" + thread / 2));
+                            ratingService.rateWork(workId, 5 - thread % 5);
+                            return null;
+                        });
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        }
+
+        assertThat(failures).isEmpty();
+
+        Map<String, Object> aggregates = jdbcTemplate.queryForMap(
+                "SELECT rating_count, rating_sum FROM final_works WHERE id = ?", workId);
+        Map<String, Object> rows = jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS rating_count, COALESCE(SUM(rating), 0) AS rating_sum FROM ratings WHERE final_work_id = ?", workId);
+        assertThat(((Number) rows.get("rating_count")).longValue()).isEqualTo(STUDENTS);
+        assertThat(((Number) aggregates.get("rating_count")).longValue()).isEqualTo(STUDENTS);
+        assertThat(((Number) aggregates.get("rating_sum")).longValue()).isEqualTo(((Number) rows.get("rating_sum")).longValue());
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookmarks WHERE final_work_id = ?", Long.class, workId)).isEqualTo(STUDENTS);
+
+        List<String> tags = jdbcTemplate.queryForList("SELECT name FROM tags WHERE name LIKE ?", String.class, "%-" + run + "%");
+        assertThat(tags).doesNotHaveDuplicates().hasSize(1 + 10 + STUDENTS);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM final_work_tags fwt JOIN tags t ON t.id = fwt.tag_id WHERE t.name = ?",
+                Long.class, "shared-" + run)).isEqualTo(THREADS + 1L);
+    }
+
+    private static FinalWorkDTO work(String title, String... tags) {
+        FinalWorkDTO work = new FinalWorkDTO();
+        work.setTitle(title);
+        work.setFileUrl("https://example.com/works/" + UUID.randomUUID() + ".pdf");
+        work.setTags(Set.of(tags).stream().map(name -> {
+            TagDTO tag = new TagDTO();
+            tag.setName(name);
+            return tag;
+        }).collect(Collectors.toSet()));
+        return work;
+    }
+
+    private static <T> T as(Student student, Callable<T> action) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(student, null, student.getAuthorities()));
+        try {
+            return action.call();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.finalworks.service;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * ConcurrentInteractionsTest against PostgreSQL (INSERT ... ON CONFLICT instead of H2's MERGE).
+ * Needs a throwaway database, the schema is created and dropped:
+ * mvn test -Dfinalworks.test.postgres.url=jdbc:postgresql://localhost:5432/finalworks_test
+ * (optionally -Dfinalworks.test.postgres.username=... -Dfinalworks.test.postgres.password=...).
+ */
+@EnabledIfSystemProperty(named = "finalworks.test.postgres.url", matches = ".+")
+class PostgresConcurrentInteractionsTest extends ConcurrentInteractionsTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("finalworks.test.postgres.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("finalworks.test.postgres.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("finalworks.test.postgres.password", "postgres"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+}
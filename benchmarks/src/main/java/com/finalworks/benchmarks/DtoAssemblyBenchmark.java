@@ -0,0 +1,87 @@
+package com.finalworks.benchmarks;
+
+import com.finalworks.dto.FinalWorkDTO;
+import com.finalworks.dto.FinalWorkSummary;
+import com.finalworks.model.FinalWork;
+import com.finalworks.model.Student;
+import com.finalworks.model.Tag;
+import com.finalworks.repository.FinalWorkRepository;
+import com.finalworks.repository.StudentRepository;
+import com.finalworks.service.FinalWorkAssembler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FinalWorkAssembler.toDTOs (what used to be FinalWorkService.convertToDTO) on a page of works,
+ * and fromSummaries on the projection rows the listing endpoints now use.
+ * Repositories are in-memory stubs, so this measures only the assembly itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoAssemblyBenchmark {
+
+    @Param({"1", "20", "100"})
+    public int pageSize;
+
+    private List<FinalWork> page;
+    private List<FinalWorkSummary> summaries;
+    private FinalWorkAssembler assembler;
+
+    @Setup
+    public void setUp() {
+        page = Fixtures.works(pageSize, 42);
+        summaries = new ArrayList<>(page.size());
+        for (FinalWork work : page) {
+            summaries.add(new FinalWorkSummary(work.getId(), work.getTitle(), work.getDescription(), work.getFileUrl(),
+                    work.getSubmittedAt(), work.getStudent().getId(), work.getStudent().getName(),
+                    work.getStudent().getEmail(), work.getRatingSum(), work.getRatingCount(), work.getRatingScore(), work.getCommentCount()));
+        }
+
+        Map<Long, Student> students = new HashMap<>();
+        Map<Long, FinalWork> works = new HashMap<>();
+        for (FinalWork work : page) {
+            students.put(work.getStudent().getId(), work.getStudent());
+            works.put(work.getId(), work);
+        }
+
+        StudentRepository studentRepository = Fixtures.stubRepository(StudentRepository.class, Map.of(
+                "findAllById", args -> {
+                    List<Student> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        found.add(students.get((Long) id));
+                    }
+                    return found;
+                }));
+        FinalWorkRepository finalWorkRepository = Fixtures.stubRepository(FinalWorkRepository.class, Map.of(
+                "findTagRowsByWorkIds", args -> {
+                    List<Object[]> rows = new ArrayList<>();
+                    for (Object id : (Collection<?>) args[0]) {
+                        for (Tag tag : works.get((Long) id).getTags()) {
+                            rows.add(new Object[]{id, tag.getId(), tag.getName()});
+                        }
+                    }
+                    return rows;
+                }));
+        assembler = new FinalWorkAssembler(finalWorkRepository, studentRepository);
+    }
+
+    @Benchmark
+    public List<FinalWorkDTO> toDTOs() {
+        return assembler.toDTOs(page);
+    }
+
+    @Benchmark
+    public List<FinalWorkDTO> fromSummaries() {
+        return assembler.fromSummaries(summaries);
+    }
+}
@@ -0,0 +1,163 @@
+package com.finalworks.benchmarks;
+
+import com.finalworks.dto.FinalWorkDTO;
+import com.finalworks.dto.TagDTO;
+import com.finalworks.model.Comment;
+import com.finalworks.model.FinalWork;
+import com.finalworks.model.Role;
+import com.finalworks.model.Student;
+import com.finalworks.model.Tag;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Deterministic object graphs shaped like production data: a few hundred students,
+ * a pool of tags, several tags and comments per work, Czech text with diacritics.
+ */
+public final class Fixtures {
+
+    private static final String[] WORDS = {
+            "aplikace", "webové", "moderní", "analýza", "řešení", "návrh", "implementace", "databáze",
+            "výkon", "uživatelské", "rozhraní", "síť", "bezpečnost", "strojové", "učení", "data",
+            "mobilní", "systém", "architektura", "testování", "škálovatelnost", "cloud", "služby", "model"
+    };
+
+    private Fixtures() {
+    }
+
+    public static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    public static Student student(long id) {
+        Student student = new Student();
+        student.setId(id);
+        student.setName("Student " + id);
+        student.setEmail("student" + id + "@example.com");
+        student.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+        student.setRole(id == 1 ? Role.ADMIN : Role.USER);
+        student.setVersion(0L);
+        return student;
+    }
+
+    public static List<Tag> tags(int count) {
+        List<Tag> tags = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Tag tag = new Tag();
+            tag.setId((long) i);
+            tag.setName("tag-" + i);
+            tags.add(tag);
+        }
+        return tags;
+    }
+
+    /**
+     * Works with students, tags and comments attached, ids 1..count.
+     */
+    public static List<FinalWork> works(int count, long seed) {
+        Random random = new Random(seed);
+        List<Tag> tagPool = tags(30);
+        List<Student> students = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            students.add(student(id));
+        }
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<FinalWork> works = new ArrayList<>(count);
+        long commentId = 1;
+        for (int i = 1; i <= count; i++) {
+            FinalWork work = new FinalWork();
+            work.setId((long) i);
+            work.setTitle(text(random, 6));
+            work.setDescription(text(random, 80));
+            work.setFileUrl("https://files.example.com/works/" + i + ".pdf");
+            work.setSubmittedAt(start.plusMinutes(i * 37L));
+            work.setStudent(students.get(random.nextInt(students.size())));
+            work.setRatingCount(random.nextInt(40));
+            work.setRatingSum(work.getRatingCount() * (1 + random.nextInt(5)));
+            Set<Tag> tags = new HashSet<>();
+            int tagCount = 2 + random.nextInt(5);
+            while (tags.size() < tagCount) {
+                tags.add(tagPool.get(random.nextInt(tagPool.size())));
+            }
+            work.setTags(tags);
+            int commentCount = random.nextInt(10);
+            for (int c = 0; c < commentCount; c++) {
+                Comment comment = new Comment();
+                comment.setId(commentId++);
+                comment.setContent(text(random, 25));
+                comment.setAuthorName("Student " + (1 + random.nextInt(300)));
+                comment.setCreatedAt(work.getSubmittedAt().plusHours(c + 1));
+                comment.setFinalWork(work);
+                work.getComments().add(comment);
+            }
+            work.setCommentCount(commentCount);
+            works.add(work);
+        }
+        return works;
+    }
+
+    /**
+     * The DTOs the assembler would produce for {@link #works(int, long)}, without any repositories.
+     */
+    public static List<FinalWorkDTO> dtos(int count, long seed) {
+        List<FinalWorkDTO> dtos = new ArrayList<>(count);
+        for (FinalWork work : works(count, seed)) {
+            FinalWorkDTO dto = new FinalWorkDTO();
+            dto.setId(work.getId());
+            dto.setTitle(work.getTitle());
+            dto.setDescription(work.getDescription());
+            dto.setFileUrl(work.getFileUrl());
+            dto.setSubmittedAt(work.getSubmittedAt());
+            dto.setStudentId(work.getStudent().getId());
+            dto.setStudentName(work.getStudent().getName());
+            dto.setStudentEmail(work.getStudent().getEmail());
+            dto.setCommentCount(work.getCommentCount());
+            Set<TagDTO> tags = new LinkedHashSet<>();
+            for (Tag tag : work.getTags()) {
+                TagDTO tagDTO = new TagDTO();
+                tagDTO.setId(tag.getId());
+                tagDTO.setName(tag.getName());
+                tags.add(tagDTO);
+            }
+            dto.setTags(tags);
+            dto.setAverageRating(work.getAverageRating());
+            dto.setRatingCount(work.getRatingCount());
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    /**
+     * An implementation of a repository interface that answers only the given methods
+     * (by name) and fails on anything else.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stubRepository(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> handler = methods.get(method.getName());
+            if (handler != null) {
+                return handler.apply(args);
+            }
+            if (method.getName().equals("toString")) {
+                return "stub " + type.getSimpleName();
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        });
+    }
+}
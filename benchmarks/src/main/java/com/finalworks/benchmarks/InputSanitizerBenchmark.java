@@ -0,0 +1,51 @@
+package com.finalworks.benchmarks;
+
+import com.finalworks.util.InputSanitizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InputSanitizer on description-sized input with some markup mixed in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputSanitizerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int length;
+
+    private final InputSanitizer sanitizer = new InputSanitizer();
+    private String input;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < length) {
+            text.append(Fixtures.text(random, 12));
+            switch (random.nextInt(4)) {
+                case 0 -> text.append(" <b>\"důležité\"</b> ");
+                case 1 -> text.append(" <script>alert('x')</script> ");
+                case 2 -> text.append(" viz https://example.com/a/b ");
+                default -> text.append(".\n");
+            }
+        }
+        input = text.substring(0, length);
+    }
+
+    @Benchmark
+    public String sanitize() {
+        return sanitizer.sanitize(input);
+    }
+
+    @Benchmark
+    public String sanitizeWithBasicFormatting() {
+        return sanitizer.sanitizeWithBasicFormatting(input);
+    }
+}
@@ -0,0 +1,41 @@
+package com.finalworks.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.finalworks.dto.FinalWorkDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialisation of a list response, with the ObjectMapper configured the way
+ * Spring Boot configures the one behind the REST controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private List<FinalWorkDTO> dtos;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        dtos = Fixtures.dtos(size, 42);
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, FinalWorkDTO.class));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(dtos);
+    }
+}
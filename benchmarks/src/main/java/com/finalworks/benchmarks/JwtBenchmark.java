@@ -0,0 +1,57 @@
+package com.finalworks.benchmarks;
+
+import com.finalworks.model.Student;
+import com.finalworks.repository.StudentRepository;
+import com.finalworks.service.JwtService;
+import com.finalworks.service.StudentUserDetailsService;
+import com.finalworks.service.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification, plus the per-request path through VerifiedTokenCache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private Student student;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        student = Fixtures.student(2);
+        StudentRepository studentRepository = Fixtures.stubRepository(StudentRepository.class, Map.of(
+                "findById", args -> Optional.of(student),
+                "findByEmail", args -> Optional.of(student)));
+        verifiedTokenCache = new VerifiedTokenCache(jwtService, studentRepository, new StudentUserDetailsService(studentRepository), 10_000);
+        token = jwtService.generateToken(student);
+        verifiedTokenCache.resolve(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(student);
+    }
+
+    @Benchmark
+    public Claims parseVerified() {
+        return jwtService.parseVerified(token);
+    }
+
+    @Benchmark
+    public Student resolveCached() {
+        return verifiedTokenCache.resolve(token);
+    }
+}
@@ -0,0 +1,69 @@
+package com.finalworks.benchmarks;
+
+import com.finalworks.config.ServiceTimingInterceptor;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the service-layer timers (ServiceTimingInterceptor) on a trivial method: called
+ * directly, through a CGLIB proxy without advice (what a service looks like with
+ * finalworks.metrics.service-timers.enabled=false, since it is proxied for @Transactional
+ * anyway) and through the timing interceptor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceTimerBenchmark {
+
+    @Timed(value = "finalworks.service", histogram = true)
+    public static class Target {
+        public int work(int value) {
+            return value * 31 + 7;
+        }
+    }
+
+    private Target direct;
+    private Target proxied;
+    private Target timed;
+    private int value;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        direct = new Target();
+        proxied = proxy(null);
+        timed = proxy(new ServiceTimingInterceptor(() -> registry));
+    }
+
+    private static Target proxy(ServiceTimingInterceptor interceptor) {
+        ProxyFactory factory = new ProxyFactory(new Target());
+        factory.setProxyTargetClass(true);
+        if (interceptor != null) {
+            factory.addAdvisor(new DefaultPointcutAdvisor(ServiceTimingInterceptor.POINTCUT, interceptor));
+        }
+        return (Target) factory.getProxy();
+    }
+
+    @Benchmark
+    public int direct() {
+        return direct.work(value++);
+    }
+
+    @Benchmark
+    public int timersDisabled() {
+        return proxied.work(value++);
+    }
+
+    @Benchmark
+    public int timersEnabled() {
+        return timed.work(value++);
+    }
+}
@@ -0,0 +1,405 @@
+package com.finalworks.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a weighted read/write mix against a running backend and reports throughput and
+ * p50/p95/p99 latency per endpoint, on stdout and as JSON.
+ *
+ * Users are the loadtest{n}@example.com accounts created by SyntheticDatasetGenerator.
+ *
+ * Options (all optional):
+ *   --base-url https://localhost:8443   --duration 60 (seconds)   --warmup 10 (seconds)
+ *   --concurrency 32   --users 200   --password LoadTest123   --insecure (trust any certificate)
+ *   --mix list=30,detail=25,top-rated=5,filter=5,rate=10,unrate=5,bookmark=7,unbookmark=3,bookmarks=5,login=5
+ *   --out target/load-result.json
+ */
+public class LoadDriver {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String DEFAULT_MIX =
+            "list=30,detail=25,top-rated=5,filter=5,rate=10,unrate=5,bookmark=7,unbookmark=3,bookmarks=5,login=5";
+
+    private final String baseUrl;
+    private final int users;
+    private final String password;
+    private final HttpClient client;
+    private final List<String> operations = new ArrayList<>();
+    private final int[] cumulativeWeights;
+
+    private long[] workIds;
+    private String[] tags;
+
+    LoadDriver(String baseUrl, int users, String password, boolean insecure, Map<String, Integer> mix) throws Exception {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.password = password;
+        if (insecure) {
+            // Read once when the HTTP client initialises
+            System.setProperty("jdk.internal.httpclient.disableHostnameVerification", "true");
+        }
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .version(HttpClient.Version.HTTP_1_1);
+        if (insecure) {
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[]{new TrustAllManager()}, new SecureRandom());
+            builder.sslContext(sslContext);
+        }
+        this.client = builder.build();
+        this.cumulativeWeights = new int[mix.size()];
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            total += entry.getValue();
+            cumulativeWeights[operations.size()] = total;
+            operations.add(entry.getKey());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        execute(parseOptions(args));
+    }
+
+    /**
+     * One warm-up plus measurement run with the given options; returns the report that is also written to --out.
+     */
+    static ObjectNode execute(Map<String, String> options) throws Exception {
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration", "60"));
+        long warmupSeconds = Long.parseLong(options.getOrDefault("warmup", "10"));
+        Path out = Path.of(options.getOrDefault("out", "target/load-result.json"));
+
+        LoadDriver driver = new LoadDriver(
+                options.getOrDefault("base-url", "https://localhost:8443"),
+                Integer.parseInt(options.getOrDefault("users", "200")),
+                options.getOrDefault("password", "LoadTest123"),
+                options.containsKey("insecure"),
+                parseMix(options.getOrDefault("mix", DEFAULT_MIX)));
+        driver.discover();
+
+        System.out.printf("Warming up for %d s, then measuring for %d s with %d workers%n",
+                warmupSeconds, durationSeconds, concurrency);
+        driver.run(concurrency, warmupSeconds, null);
+        Map<String, Recorder> results = new TreeMap<>();
+        driver.run(concurrency, durationSeconds, results);
+
+        ObjectNode report = report(results, durationSeconds);
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        Files.writeString(out, MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        System.out.println("Results written to " + out.toAbsolutePath());
+        return report;
+    }
+
+    /**
+     * Collects work ids and tag names to pick from.
+     */
+    void discover() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        for (int page = 0; page < 20; page++) {
+            String url = "/api/final-works?limit=100" + (cursor != null ? "&cursor=" + cursor : "");
+            JsonNode body = MAPPER.readTree(send(get(url, null)).body());
+            body.path("items").forEach(item -> ids.add(item.path("id").asLong()));
+            cursor = body.path("nextCursor").isTextual() ? body.path("nextCursor").asText() : null;
+            if (cursor == null) {
+                break;
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No final works found at " + baseUrl);
+        }
+        workIds = ids.stream().mapToLong(Long::longValue).toArray();
+
+        List<String> names = new ArrayList<>();
+        MAPPER.readTree(send(get("/api/tags/popular", null)).body()).forEach(tag -> names.add(tag.path("name").asText()));
+        tags = names.toArray(new String[0]);
+        System.out.printf("Discovered %d works and %d tags%n", workIds.length, tags.length);
+    }
+
+    void run(int concurrency, long seconds, Map<String, Recorder> results) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Map<String, Recorder>>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> worker(deadline)));
+            }
+            for (Future<Map<String, Recorder>> future : futures) {
+                Map<String, Recorder> local = future.get();
+                if (results != null) {
+                    local.forEach((endpoint, recorder) -> results.computeIfAbsent(endpoint, key -> new Recorder()).merge(recorder));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<String, Recorder> worker(long deadline) throws Exception {
+        Map<String, Recorder> recorders = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String token = login(recorders, random);
+        while (System.nanoTime() < deadline) {
+            String operation = pick(random);
+            long workId = workIds[random.nextInt(workIds.length)];
+            switch (operation) {
+                case "list" -> timed(recorders, "GET /api/final-works", get("/api/final-works?limit=20", null));
+                case "detail" -> timed(recorders, "GET /api/final-works/{id}", get("/api/final-works/" + workId, null));
+                case "top-rated" -> timed(recorders, "GET /api/final-works/top-rated",
+                        get("/api/final-works/top-rated?limit=20", null));
+                case "filter" -> timed(recorders, "GET /api/final-works/filter", get("/api/final-works/filter?tags="
+                        + URLEncoder.encode(tags[Math.min(random.nextInt(tags.length), random.nextInt(tags.length))],
+                        StandardCharsets.UTF_8) + "&limit=20", null));
+                case "rate" -> timed(recorders, "POST /api/ratings/{id}", post("/api/ratings/" + workId,
+                        "{\"rating\":" + (1 + random.nextInt(5)) + "}", token));
+                case "unrate" -> timed(recorders, "DELETE /api/ratings/{id}", delete("/api/ratings/" + workId, token));
+                case "bookmark" -> timed(recorders, "POST /api/bookmarks/{id}", post("/api/bookmarks/" + workId, "", token));
+                case "unbookmark" -> timed(recorders, "DELETE /api/bookmarks/{id}", delete("/api/bookmarks/" + workId, token));
+                case "bookmarks" -> timed(recorders, "GET /api/bookmarks", get("/api/bookmarks", token));
+                case "login" -> token = login(recorders, random);
+                default -> throw new IllegalArgumentException("Unknown operation: " + operation);
+            }
+        }
+        return recorders;
+    }
+
+    private String login(Map<String, Recorder> recorders, ThreadLocalRandom random) throws Exception {
+        String email = "loadtest" + (1 + random.nextInt(users)) + "@example.com";
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        Recorder recorder = recorders.computeIfAbsent("POST /api/auth/login", key -> new Recorder());
+        // Thousands of workers log in at once on start-up; a few retries keep one slow handshake from ending the run
+        Exception failure = null;
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long started = System.nanoTime();
+            try {
+                HttpResponse<String> response = send(post("/api/auth/login", body, null));
+                recorder.record(System.nanoTime() - started, response.statusCode());
+                if (response.statusCode() == 200) {
+                    return MAPPER.readTree(response.body()).path("token").asText();
+                }
+                failure = new IllegalStateException(response.statusCode() + " " + response.body());
+            } catch (Exception e) {
+                recorder.record(System.nanoTime() - started, 0);
+                failure = e;
+            }
+        }
+        throw new IllegalStateException("Login failed for " + email, failure);
+    }
+
+    private HttpResponse<String> timed(Map<String, Recorder> recorders, String endpoint, HttpRequest request) {
+        Recorder recorder = recorders.computeIfAbsent(endpoint, key -> new Recorder());
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = send(request);
+            recorder.record(System.nanoTime() - started, response.statusCode());
+            return response;
+        } catch (Exception e) {
+            recorder.record(System.nanoTime() - started, 0);
+            return null;
+        }
+    }
+
+    private String pick(ThreadLocalRandom random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest delete(String path, String token) {
+        return request(path, token).DELETE().build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static ObjectNode report(Map<String, Recorder> results, long durationSeconds) {
+        ObjectNode report = MAPPER.createObjectNode();
+        report.put("durationSeconds", durationSeconds);
+        ArrayNode endpoints = report.putArray("endpoints");
+        Recorder total = new Recorder();
+        System.out.printf("%n%-36s %9s %9s %8s %8s %8s %8s %8s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        results.forEach((endpoint, recorder) -> {
+            total.merge(recorder);
+            endpoints.add(recorder.toJson(endpoint, durationSeconds));
+            recorder.print(endpoint, durationSeconds);
+        });
+        total.print("TOTAL", durationSeconds);
+        report.set("total", total.toJson("TOTAL", durationSeconds));
+        return report;
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(name, args[++i]);
+            } else {
+                options.put(name, "true");
+            }
+        }
+        return options;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = Integer.parseInt(pair[1]);
+            if (weight > 0) {
+                weights.put(pair[0], weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Empty operation mix");
+        }
+        return weights;
+    }
+
+    /**
+     * Latencies and status codes for one endpoint; one instance per worker, merged at the end.
+     */
+    static class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+        void record(long nanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            statuses.merge(status, 1, Integer::sum);
+            // 409 is the expected answer to rating or bookmarking a work twice
+            if (status == 0 || (status >= 400 && status != 404 && status != 409)) {
+                errors++;
+            }
+        }
+
+        void merge(Recorder other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+            other.statuses.forEach((status, n) -> statuses.merge(status, n, Integer::sum));
+        }
+
+        private double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+        }
+
+        private long[] sorted() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        void print(String endpoint, long durationSeconds) {
+            long[] sorted = sorted();
+            System.out.printf("%-36s %9d %9.1f %8d %8.1f %8.1f %8.1f %8.1f%n", endpoint, count,
+                    (double) count / durationSeconds, errors, percentileMillis(sorted, 50), percentileMillis(sorted, 95),
+                    percentileMillis(sorted, 99), percentileMillis(sorted, 100));
+        }
+
+        ObjectNode toJson(String endpoint, long durationSeconds) {
+            long[] sorted = sorted();
+            ObjectNode node = MAPPER.createObjectNode();
+            node.put("endpoint", endpoint);
+            node.put("requests", count);
+            node.put("throughputPerSecond", (double) count / durationSeconds);
+            node.put("errors", errors);
+            node.put("p50Millis", percentileMillis(sorted, 50));
+            node.put("p95Millis", percentileMillis(sorted, 95));
+            node.put("p99Millis", percentileMillis(sorted, 99));
+            node.put("maxMillis", percentileMillis(sorted, 100));
+            ObjectNode statusNode = node.putObject("statuses");
+            statuses.forEach((status, n) -> statusNode.put(String.valueOf(status), n));
+            return node;
+        }
+    }
+
+    private static class TrustAllManager implements X509TrustManager {
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.finalworks.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the same load twice against a freshly started backend: once on Tomcat's platform
+ * thread pool and once with spring.threads.virtual.enabled=true, then prints throughput
+ * and tail latency side by side. Virtual threads need a Java 21+ runtime for the backend
+ * (--java); on older runtimes the second run silently uses platform threads, which is
+ * reported.
+ *
+ * Options (all optional, anything else is passed to LoadDriver; --concurrency defaults to 1000):
+ *   --jar ../backend/target/finalworks-backend-1.0.0.jar   --java java   --startup-timeout 600 (seconds)
+ * Arguments after a lone "--" replace the default backend arguments, e.g.
+ *   -- --spring.profiles.active=dev --finalworks.dataset.generate=true --finalworks.dataset.works=20000
+ */
+public class ThreadingComparison {
+
+    private static final String DEFAULT_APP_ARGS = "--spring.profiles.active=dev --spring.jpa.show-sql=false "
+            + "--finalworks.dataset.generate=true --finalworks.dataset.works=20000 "
+            + "--finalworks.dataset.comments=100000 --finalworks.dataset.ratings=200000";
+
+    // Logged from an ApplicationReadyEvent listener, i.e. after the dataset has been loaded
+    private static final String READY_MARKER = "Loaded tag index";
+    private static final String VIRTUAL_MARKER = "Virtual threads enabled";
+    private static final String PINNED_MARKER = "Virtual thread pinned";
+
+    public static void main(String[] args) throws Exception {
+        int separator = Arrays.asList(args).indexOf("--");
+        Map<String, String> options = LoadDriver.parseOptions(separator < 0 ? args : Arrays.copyOf(args, separator));
+        List<String> appArgs = separator < 0
+                ? Arrays.asList(DEFAULT_APP_ARGS.split(" "))
+                : Arrays.asList(args).subList(separator + 1, args.length);
+        String jar = options.getOrDefault("jar", "../backend/target/finalworks-backend-1.0.0.jar");
+        String java = options.getOrDefault("java", "java");
+        long startupTimeout = Long.parseLong(options.getOrDefault("startup-timeout", "600"));
+
+        Map<String, String> loadOptions = new HashMap<>(options);
+        loadOptions.keySet().removeAll(List.of("jar", "java", "startup-timeout"));
+        loadOptions.putIfAbsent("concurrency", "1000");
+        loadOptions.putIfAbsent("insecure", "true");
+
+        Map<String, JsonNode> totals = new LinkedHashMap<>();
+        Map<String, String> notes = new LinkedHashMap<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            Path log = Path.of("target", "app-" + mode + ".log");
+            Files.createDirectories(log.getParent());
+
+            List<String> command = new ArrayList<>(List.of(java, "-jar", jar));
+            command.addAll(appArgs);
+            command.add("--spring.threads.virtual.enabled=" + virtual);
+            System.out.printf("%n=== %s threads: %s%n", mode, String.join(" ", command));
+            Process app = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+            try {
+                awaitReady(app, log, startupTimeout);
+                Map<String, String> runOptions = new HashMap<>(loadOptions);
+                runOptions.put("out", "target/load-" + mode + ".json");
+                totals.put(mode, LoadDriver.execute(runOptions).path("total"));
+            } finally {
+                app.destroy();
+                if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                    app.destroyForcibly();
+                }
+            }
+
+            String output = Files.readString(log);
+            if (virtual && !output.contains(VIRTUAL_MARKER)) {
+                notes.put(mode, "backend ran on platform threads (needs Java 21+, see " + log + ")");
+            } else if (virtual) {
+                long pinned = output.lines().filter(line -> line.contains(PINNED_MARKER)).count();
+                notes.put(mode, pinned + " pinning sites reported (see " + log + ")");
+            }
+        }
+
+        System.out.printf("%n%-10s %9s %9s %8s %8s %8s %8s %8s%n",
+                "threads", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        totals.forEach((mode, total) -> System.out.printf("%-10s %9d %9.1f %8d %8.1f %8.1f %8.1f %8.1f%n", mode,
+                total.path("requests").asLong(), total.path("throughputPerSecond").asDouble(),
+                total.path("errors").asLong(), total.path("p50Millis").asDouble(), total.path("p95Millis").asDouble(),
+                total.path("p99Millis").asDouble(), total.path("maxMillis").asDouble()));
+        notes.forEach((mode, note) -> System.out.printf("%s: %s%n", mode, note));
+    }
+
+    private static void awaitReady(Process app, Path log, long timeoutSeconds) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (System.nanoTime() < deadline) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("Backend exited with " + app.exitValue() + ", see " + log);
+            }
+            if (Files.exists(log) && Files.readString(log).contains(READY_MARKER)) {
+                return;
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("Backend not ready after " + timeoutSeconds + " s, see " + log);
+    }
+}
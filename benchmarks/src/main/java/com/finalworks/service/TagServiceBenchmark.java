@@ -0,0 +1,59 @@
+package com.finalworks.service;
+
+import com.finalworks.FinalWorksApplication;
+import com.finalworks.model.Tag;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TagService.findOrCreateTag against the dev profile's in-memory H2 database, through the
+ * real Spring context. Lives in com.finalworks.service because the method is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TagServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private TagService tagService;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() throws Exception {
+        SpringApplication application = new SpringApplication(FinalWorksApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setAdditionalProfiles("dev");
+        application.setDefaultProperties(Map.of(
+                "spring.jpa.show-sql", "false",
+                "finalworks.search.index-dir", Files.createTempDirectory("jmh-search-index").toString(),
+                "logging.level.com.finalworks", "WARN"));
+        context = application.run();
+        tagService = context.getBean(TagService.class);
+        tagService.findOrCreateTag("existing-tag");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Tag findExisting() {
+        return tagService.findOrCreateTag("existing-tag");
+    }
+
+    @Benchmark
+    public Tag createNew() {
+        return tagService.findOrCreateTag("new-tag-" + sequence.incrementAndGet());
+    }
+}
@@ -14,8 +14,7 @@ const AdminPanel = () => {
     setLoading(true);
     try {
       if (activeTab === 'works') {
-        const response = await finalWorksAPI.getAll();
-        setWorks(response.data);
+        setWorks(await finalWorksAPI.getAllPages());
       } else {
         const response = await studentsAPI.getAll();
         setStudents(response.data);
@@ -125,7 +124,7 @@ const AdminPanel = () => {
                           </td>
                           <td>{work.studentName}</td>
                           <td>{new Date(work.submittedAt).toLocaleDateString('cs-CZ')}</td>
-                          <td>{work.comments?.length || 0}</td>
+                          <td>{work.commentCount || 0}</td>
                           <td>
                             <button
                               onClick={() => handleDeleteWork(work.id)}
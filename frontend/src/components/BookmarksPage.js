@@ -2,7 +2,7 @@ import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
 import { useNavigate } from 'react-router-dom';
 import { finalWorksAPI } from '../services/api';
-import { getBookmarkedWorks } from '../utils/bookmarks';
+import { getBookmarks, getBookmarkedWorks } from '../utils/bookmarks';
 import { getAverageRating } from '../utils/ratings';
 import { useAuth } from '../context/AuthContext';
 import './BookmarksPage.css';
@@ -24,8 +24,9 @@ const BookmarksPage = () => {
 
   const fetchBookmarkedWorks = async () => {
     try {
-      const response = await finalWorksAPI.getAll();
-      const allWorks = response.data;
+      // Stops paging once every bookmarked work has been found
+      const bookmarkCount = getBookmarks().length;
+      const allWorks = await finalWorksAPI.getAllPages(items => getBookmarkedWorks(items).length >= bookmarkCount);
       const bookmarked = getBookmarkedWorks(allWorks);
       setBookmarkedWorks(bookmarked);
       setLoading(false);
@@ -62,7 +63,7 @@ const BookmarksPage = () => {
                     {new Date(work.submittedAt).toLocaleDateString('cs-CZ')}
                   </span>
                   <span className="comments-count">
-                    {work.comments?.length || 0} komentářů
+                    {work.commentCount || 0} komentářů
                   </span>
                   {getAverageRating(work.id) > 0 && (
                     <span className="rating">
@@ -1,6 +1,6 @@
 import React, { useState, useEffect, useCallback } from 'react';
 import { useParams, Link, useNavigate } from 'react-router-dom';
-import { finalWorksAPI, ratingsAPI, bookmarksAPI } from '../services/api';
+import { finalWorksAPI, ratingsAPI, bookmarksAPI, interactionsAPI, fileHref } from '../services/api';
 import { useAuth } from '../context/AuthContext';
 import './FinalWorkDetail.css';
 
@@ -10,6 +10,7 @@ const FinalWorkDetail = () => {
   const { user, isAuthenticated, isAdmin } = useAuth();
   const [finalWork, setFinalWork] = useState(null);
   const [comments, setComments] = useState([]);
+  const [commentsCursor, setCommentsCursor] = useState(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [newComment, setNewComment] = useState({ content: '' });
@@ -31,17 +32,40 @@ const FinalWorkDetail = () => {
   const fetchComments = useCallback(async () => {
     try {
       const response = await finalWorksAPI.getComments(id);
-      setComments(response.data);
+      setComments(response.data.items);
+      setCommentsCursor(response.data.nextCursor);
     } catch (err) {
       console.error('Failed to load comments', err);
     }
   }, [id]);
 
+  const loadMoreComments = async () => {
+    if (!commentsCursor) return;
+    try {
+      const response = await finalWorksAPI.getComments(id, { after: commentsCursor });
+      setComments(prevComments => [...prevComments, ...response.data.items]);
+      setCommentsCursor(response.data.nextCursor);
+    } catch (err) {
+      console.error('Failed to load comments', err);
+    }
+  };
+
   useEffect(() => {
     fetchFinalWork();
     fetchComments();
   }, [fetchComments, fetchFinalWork]);
 
+  useEffect(() => {
+    if (!isAuthenticated) return;
+    interactionsAPI.get([Number(id)])
+      .then(response => {
+        const [interaction] = response.data;
+        setUserRating(interaction.rating || 0);
+        setBookmarked(interaction.bookmarked);
+      })
+      .catch(err => console.error('Failed to load rating and bookmark state', err));
+  }, [id, isAuthenticated]);
+
   const handleSubmitComment = async (e) => {
     e.preventDefault();
     if (!isAuthenticated) {
@@ -193,14 +217,22 @@ const FinalWorkDetail = () => {
       {finalWork.fileUrl && (
         <div className="work-file">
           <h2>Soubor</h2>
-          <a href={finalWork.fileUrl} target="_blank" rel="noopener noreferrer" className="file-link">
+          {finalWork.thumbnailUrl && (
+            <a href={fileHref(finalWork.fileUrl)} target="_blank" rel="noopener noreferrer">
+              <img src={fileHref(finalWork.thumbnailUrl)} alt="Náhled první strany" className="file-thumbnail" />
+            </a>
+          )}
+          <a href={fileHref(finalWork.fileUrl)} target="_blank" rel="noopener noreferrer" className="file-link">
             Zobrazit/Stáhnout soubor
           </a>
+          {finalWork.pageCount != null && (
+            <span className="file-pages"> ({finalWork.pageCount} stran)</span>
+          )}
         </div>
       )}
 
       <div className="comments-section">
-        <h2>Komentáře ({comments.length})</h2>
+        <h2>Komentáře ({finalWork.commentCount || 0})</h2>
 
         {!isAuthenticated ? (
           <div className="no-comments">
@@ -242,6 +274,7 @@ const FinalWorkDetail = () => {
                           try {
                             await finalWorksAPI.deleteComment(comment.id);
                             fetchComments();
+                            fetchFinalWork();
                           } catch (err) {
                             alert('Nepodařilo se smazat komentář');
                           }
@@ -258,6 +291,11 @@ const FinalWorkDetail = () => {
               </div>
             ))
           )}
+          {commentsCursor && (
+            <button className="load-more" onClick={loadMoreComments}>
+              Načíst další komentáře
+            </button>
+          )}
         </div>
       </div>
     </div>
@@ -1,6 +1,7 @@
-import React, { useState, useEffect, useCallback } from 'react';
+import React, { useState, useEffect, useCallback, useRef } from 'react';
 import { Link, useSearchParams } from 'react-router-dom';
-import { finalWorksAPI, tagsAPI } from '../services/api';
+import { finalWorksAPI, tagsAPI, interactionsAPI } from '../services/api';
+import { useAuth } from '../context/AuthContext';
 import './FinalWorksList.css';
 
 const FinalWorksList = () => {
@@ -12,11 +13,51 @@ const FinalWorksList = () => {
   const [searchQuery, setSearchQuery] = useState('');
   const [selectedTags, setSelectedTags] = useState([]);
   const [availableTags, setAvailableTags] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  // Re-issues the last list request with a cursor; set by whichever fetch ran last
+  const fetchPage = useRef(null);
+  const { isAuthenticated } = useAuth();
+  const [interactions, setInteractions] = useState({});
+  // The fetch callbacks below are created once, so they read the login state through a ref
+  const authenticated = useRef(isAuthenticated);
+  authenticated.current = isAuthenticated;
+
+  // Rating and bookmark state of the user for a page of works, one request per page
+  const loadInteractions = async (works, replace) => {
+    if (!authenticated.current || works.length === 0) return;
+    try {
+      const response = await interactionsAPI.get(works.map(work => work.id));
+      const loaded = Object.fromEntries(response.data.map(interaction => [interaction.finalWorkId, interaction]));
+      setInteractions(prev => (replace ? loaded : { ...prev, ...loaded }));
+    } catch (err) {
+      console.error('Failed to load rating and bookmark state', err);
+    }
+  };
+
+  const showPage = (data, fetcher) => {
+    setFinalWorks(data.items);
+    setNextCursor(data.nextCursor);
+    fetchPage.current = fetcher;
+    loadInteractions(data.items, true);
+  };
+
+  const loadMore = async () => {
+    if (!nextCursor || !fetchPage.current) return;
+    try {
+      const response = await fetchPage.current({ cursor: nextCursor });
+      setFinalWorks(prevWorks => [...prevWorks, ...response.data.items]);
+      setNextCursor(response.data.nextCursor);
+      loadInteractions(response.data.items, false);
+    } catch (err) {
+      setError('Nepodařilo se načíst další práce');
+    }
+  };
 
   const fetchFinalWorks = useCallback(async (endpoint) => {
     try {
-      const response = await finalWorksAPI[endpoint]();
-      setFinalWorks(response.data);
+      const fetcher = (params) => finalWorksAPI[endpoint](params);
+      const response = await fetcher();
+      showPage(response.data, fetcher);
       setLoading(false);
     } catch (err) {
       setError('Nepodařilo se načíst práce');
@@ -39,8 +80,9 @@ const FinalWorksList = () => {
       return;
     }
     try {
-      const response = await finalWorksAPI.search(searchQuery);
-      setFinalWorks(response.data);
+      const fetcher = (params) => finalWorksAPI.search(searchQuery, params);
+      const response = await fetcher();
+      showPage(response.data, fetcher);
       setLoading(false);
     } catch (err) {
       setError('Nepodařilo se vyhledat práce');
@@ -57,9 +99,10 @@ const FinalWorksList = () => {
     }
     try {
       console.log('Calling API filterByTags with:', selectedTags);
-      const response = await finalWorksAPI.filterByTags(selectedTags);
+      const fetcher = (params) => finalWorksAPI.filterByTags(selectedTags, params);
+      const response = await fetcher();
       console.log('API response:', response.data);
-      setFinalWorks(response.data);
+      showPage(response.data, fetcher);
       setLoading(false);
     } catch (err) {
       console.error('Error in handleFilterByTags:', err);
@@ -200,18 +243,29 @@ const FinalWorksList = () => {
                   {new Date(work.submittedAt).toLocaleDateString('cs-CZ')}
                 </span>
                 <span className="comments-count">
-                  {work.comments?.length || 0} komentářů
+                  {work.commentCount || 0} komentářů
                 </span>
                 {work.averageRating > 0 && (
                   <span className="rating">
                     ⭐ {work.averageRating.toFixed(1)} ({work.ratingCount})
                   </span>
                 )}
+                {interactions[work.id]?.rating && (
+                  <span className="my-rating">Vaše hodnocení: {interactions[work.id].rating}</span>
+                )}
+                {interactions[work.id]?.bookmarked && (
+                  <span className="bookmarked">🔖 Uloženo</span>
+                )}
               </div>
             </Link>
           ))}
         </div>
       )}
+      {nextCursor && (
+        <button className="load-more" onClick={loadMore}>
+          Načíst další
+        </button>
+      )}
     </div>
   );
 };
@@ -15,8 +15,7 @@ const HomePage = () => {
 
   const fetchWorks = async () => {
     try {
-      const response = await finalWorksAPI.getAll();
-      setWorks(response.data);
+      setWorks(await finalWorksAPI.getAllPages());
       setLoading(false);
     } catch (err) {
       setError('Nepodařilo se načíst práce');
@@ -52,7 +51,7 @@ const HomePage = () => {
           {new Date(work.submittedAt).toLocaleDateString('cs-CZ')}
         </span>
         <span className="comments-count">
-          {work.comments?.length || 0} komentářů
+          {work.commentCount || 0} komentářů
         </span>
         {getAverageRating(work.id) > 0 && (
           <span className="rating">
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { finalWorksAPI } from '../services/api';
+import { finalWorksAPI, uploadFile } from '../services/api';
 import { useAuth } from '../context/AuthContext';
 import './UploadWork.css';
 
@@ -12,6 +12,8 @@ const UploadWork = () => {
     description: '',
     fileUrl: '',
   });
+  const [file, setFile] = useState(null);
+  const [progress, setProgress] = useState(null);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
 
@@ -33,20 +35,27 @@ const UploadWork = () => {
     e.preventDefault();
     setError(null);
 
-    if (!formData.title.trim() || !formData.fileUrl.trim()) {
+    if (!formData.title.trim() || (!file && !formData.fileUrl.trim())) {
       setError('Prosím vyplňte všechna povinná pole');
       return;
     }
 
     setLoading(true);
     try {
-      await finalWorksAPI.create(formData);
+      let fileUrl = formData.fileUrl;
+      if (file) {
+        setProgress(0);
+        const stored = await uploadFile(file, setProgress);
+        fileUrl = stored.url;
+      }
+      await finalWorksAPI.create({ ...formData, fileUrl });
       navigate('/');
     } catch (err) {
       setError(err.response?.data?.message || 'Nepodařilo se nahrát práci');
       console.error(err);
     } finally {
       setLoading(false);
+      setProgress(null);
     }
   };
 
@@ -83,7 +92,18 @@ const UploadWork = () => {
         </div>
 
         <div className="form-group">
-          <label htmlFor="fileUrl">URL souboru *</label>
+          <label htmlFor="file">Soubor *</label>
+          <input
+            type="file"
+            id="file"
+            accept="application/pdf"
+            onChange={(e) => setFile(e.target.files[0] || null)}
+          />
+          <small>Nahrajte dokument (PDF), nebo níže zadejte URL odkazu</small>
+        </div>
+
+        <div className="form-group">
+          <label htmlFor="fileUrl">URL souboru</label>
           <input
             type="url"
             id="fileUrl"
@@ -91,7 +111,7 @@ const UploadWork = () => {
             value={formData.fileUrl}
             onChange={handleChange}
             placeholder="https://example.com/document.pdf"
-            required
+            disabled={!!file}
           />
           <small>Zadejte URL odkazu na váš dokument</small>
         </div>
@@ -103,7 +123,9 @@ const UploadWork = () => {
             Zrušit
           </button>
           <button type="submit" disabled={loading} className="btn-primary">
-            {loading ? 'Nahrávání...' : 'Nahrát práci'}
+            {loading
+              ? (progress !== null ? `Nahrávání... ${Math.round(progress * 100)} %` : 'Nahrávání...')
+              : 'Nahrát práci'}
           </button>
         </div>
       </form>
@@ -35,16 +35,28 @@ api.interceptors.response.use(
 
 // Final Works API
 export const finalWorksAPI = {
-  getAll: () => api.get('/final-works'),
-  getNewest: () => api.get('/final-works/newest'),
-  getTopRated: () => api.get('/final-works/top-rated'),
-  search: (query) => api.get(`/final-works/search?q=${encodeURIComponent(query)}`),
-  filterByTags: (tags) => api.get(`/final-works/filter?tags=${tags.map(encodeURIComponent).join(',')}`),
+  // List endpoints are cursor-paginated: responses are { items, nextCursor }
+  getAll: (params) => api.get('/final-works', { params }),
+  // Follows nextCursor through the whole list, or until isEnough(itemsSoFar) returns true
+  getAllPages: async (isEnough = () => false) => {
+    const items = [];
+    let cursor = null;
+    do {
+      const response = await api.get('/final-works', { params: { limit: 100, ...(cursor && { cursor }) } });
+      items.push(...response.data.items);
+      cursor = response.data.nextCursor;
+    } while (cursor && !isEnough(items));
+    return items;
+  },
+  getNewest: (params) => api.get('/final-works/newest', { params }),
+  getTopRated: (params) => api.get('/final-works/top-rated', { params }),
+  search: (query, params) => api.get(`/final-works/search?q=${encodeURIComponent(query)}`, { params }),
+  filterByTags: (tags, params) => api.get(`/final-works/filter?tags=${tags.map(encodeURIComponent).join(',')}`, { params }),
   getById: (id) => api.get(`/final-works/${id}`),
   create: (data) => api.post('/final-works', data),
   update: (id, data) => api.put(`/final-works/${id}`, data),
   delete: (id) => api.delete(`/final-works/${id}`),
-  getComments: (id) => api.get(`/final-works/${id}/comments`),
+  getComments: (id, params) => api.get(`/final-works/${id}/comments`, { params }),
   addComment: (id, data) => api.post(`/final-works/${id}/comments`, data),
   deleteComment: (commentId) => api.delete(`/final-works/comments/${commentId}`),
 };
@@ -71,6 +83,11 @@ export const bookmarksAPI = {
   getUserBookmarks: () => api.get('/bookmarks'),
 };
 
+// Current user's rating and bookmark state for a list of works, in one request
+export const interactionsAPI = {
+  get: (finalWorkIds) => api.post('/me/interactions', { finalWorkIds }),
+};
+
 // Students API
 export const studentsAPI = {
   getAll: () => api.get('/students'),
@@ -80,5 +97,63 @@ export const studentsAPI = {
   delete: (id) => api.delete(`/students/${id}`),
 };
 
+// Files API: uploads go through resumable sessions, one chunk per PUT
+export const filesAPI = {
+  startUpload: (data) => api.post('/files/uploads', data),
+  getUpload: (id) => api.get(`/files/uploads/${id}`),
+  uploadChunk: (id, offset, chunk, total) => api.put(`/files/uploads/${id}`, chunk, {
+    headers: {
+      'Content-Type': 'application/octet-stream',
+      'Content-Range': `bytes ${offset}-${offset + chunk.size - 1}/${total}`,
+    },
+  }),
+  cancelUpload: (id) => api.delete(`/files/uploads/${id}`),
+};
+
+// The server checks the assembled upload against this before storing it
+const sha256Hex = async (file) => {
+  const digest = await crypto.subtle.digest('SHA-256', await file.arrayBuffer());
+  return Array.from(new Uint8Array(digest), (b) => b.toString(16).padStart(2, '0')).join('');
+};
+
+// Uploads a File chunk by chunk, resuming from the server's offset after a failed chunk.
+// Resolves to the stored file ({ sha256, url, ... }).
+export const uploadFile = async (file, onProgress) => {
+  const { data: session } = await filesAPI.startUpload({
+    fileName: file.name,
+    contentType: file.type || 'application/octet-stream',
+    size: file.size,
+    sha256: await sha256Hex(file),
+  });
+  let offset = session.offset;
+  let failures = 0;
+  for (;;) {
+    const chunk = file.slice(offset, offset + session.chunkSize);
+    try {
+      const { data } = await filesAPI.uploadChunk(session.id, offset, chunk, file.size);
+      if (data.file) {
+        if (onProgress) onProgress(1);
+        return data.file;
+      }
+      offset = data.offset;
+      failures = 0;
+      if (onProgress) onProgress(offset / file.size);
+    } catch (err) {
+      const status = err.response?.status;
+      failures += 1;
+      if (failures > 3 || (status && status !== 409 && status < 500)) {
+        throw err;
+      }
+      const { data } = await filesAPI.getUpload(session.id);
+      offset = data.offset;
+    }
+  }
+};
+
+// Uploaded files are stored as a path on the API server; external links are used as they are
+export const fileHref = (fileUrl) => (fileUrl && fileUrl.startsWith('/api/')
+  ? API_BASE_URL.replace(/\/api$/, '') + fileUrl
+  : fileUrl);
+
 export default api;
 